@@ -0,0 +1,91 @@
+package behavioural;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Subscriber churn: one random registration is cancelled and replaced per operation.
+ * {@link SubscriptionChannel} cancels through its handles, {@link YoutubeChannel} has to
+ * find and shift the observer in its list. {@code notifyAfterChurn} adds a notification
+ * after every replacement, the worst case for the snapshot, and {@code notifySteady}
+ * notifies an unchanged channel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChurnBenchmark {
+    @Param({"10000", "1000000"})
+    public int subscribers;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private Observer observer;
+    private SubscriptionChannel channel;
+    private Subscription[] subscriptions;
+    private YoutubeChannel youtubeChannel;
+    private Observer[] observers;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        observer = () -> blackhole.consume(1);
+        channel = new SubscriptionChannel();
+        subscriptions = new Subscription[subscribers];
+        for (int i = 0; i < subscribers; i++) {
+            subscriptions[i] = channel.register(observer);
+        }
+        // the list scan makes a million legacy subscribers impractical
+        youtubeChannel = new YoutubeChannel();
+        observers = new Observer[Math.min(subscribers, 10_000)];
+        for (int i = 0; i < observers.length; i++) {
+            observers[i] = distinct(blackhole, i);
+            youtubeChannel.subscribe(observers[i]);
+        }
+    }
+
+    @Benchmark
+    public void cancelAndRegister() {
+        int victim = random.nextInt(subscribers);
+        subscriptions[victim].cancel();
+        subscriptions[victim] = channel.register(observer);
+    }
+
+    @Benchmark
+    public void youtubeChannelUnsubscribeAndSubscribe(Blackhole blackhole) {
+        int victim = random.nextInt(observers.length);
+        youtubeChannel.unsubscribe(observers[victim]);
+        observers[victim] = distinct(blackhole, victim);
+        youtubeChannel.subscribe(observers[victim]);
+    }
+
+    @Benchmark
+    public void notifyAfterChurn() {
+        cancelAndRegister();
+        channel.notifyObservers();
+    }
+
+    @Benchmark
+    public void notifySteady() {
+        channel.notifyObservers();
+    }
+
+    // a capturing lambda is a new object each time, so equals() cannot match early
+    private static Observer distinct(Blackhole blackhole, int id) {
+        return () -> blackhole.consume(id);
+    }
+}
@@ -0,0 +1,80 @@
+package behavioural;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publish cost of {@link FilteredYoutubeChannel} as the subscriber count grows.
+ * <p>
+ * Every subscriber follows one of a fixed number of topics, or with {@code filter=priority}
+ * one of as many priority thresholds, so each publish matches the same share of the
+ * population. {@code indexed} publishes through the channel, {@code scan} checks every
+ * filter the way an unindexed channel would.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FilteredBenchmark {
+    private static final int KEYS = 1_000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int subscribers;
+
+    @Param({"topic", "priority"})
+    public String filter;
+
+    private FilteredYoutubeChannel channel;
+    private EventFilter[] filters;
+    private ChannelEvent[] events;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        EventObserver<ChannelEvent> observer = blackhole::consume;
+        channel = new FilteredYoutubeChannel();
+        filters = new EventFilter[subscribers];
+        for (int i = 0; i < subscribers; i++) {
+            filters[i] = filter.equals("topic")
+                    ? EventFilter.any().withTopic("topic-" + (i % KEYS))
+                    : EventFilter.any().withMinPriority(KEYS - i % KEYS);
+            channel.subscribe(observer, filters[i]);
+        }
+        // with priority filters each event reaches the lowest thresholds only
+        events = new ChannelEvent[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            events[i] = new ChannelEvent("topic-" + i, Set.of("tag"), 1 + i % 3);
+        }
+    }
+
+    @Benchmark
+    public void indexed() {
+        channel.publish(events[next++ % KEYS]);
+    }
+
+    @Benchmark
+    public void scan(Blackhole blackhole) {
+        ChannelEvent event = events[next++ % KEYS];
+        for (EventFilter candidate : filters) {
+            if (candidate.matches(event)) {
+                blackhole.consume(event);
+            }
+        }
+    }
+}
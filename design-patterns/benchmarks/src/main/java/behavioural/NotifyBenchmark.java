@@ -0,0 +1,57 @@
+package behavioural;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Subject#notifyObservers()} fan-out at different subscriber counts. Observers only
+ * consume a token so the loop itself is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NotifyBenchmark {
+    @Param({"1", "100", "10000"})
+    public int subscribers;
+
+    private YoutubeChannel youtubeChannel;
+    private ConcurrentYoutubeChannel concurrentChannel;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        youtubeChannel = new YoutubeChannel();
+        concurrentChannel = new ConcurrentYoutubeChannel();
+        for (int i = 0; i < subscribers; i++) {
+            int id = i;
+            Observer observer = () -> blackhole.consume(id);
+            youtubeChannel.subscribe(observer);
+            concurrentChannel.subscribe(observer);
+        }
+    }
+
+    @Benchmark
+    public void youtubeChannel() {
+        youtubeChannel.notifyObservers();
+    }
+
+    @Benchmark
+    public void concurrentYoutubeChannel() {
+        concurrentChannel.notifyObservers();
+    }
+}
@@ -0,0 +1,95 @@
+package behavioural;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One notification of a million subscribers through {@link ShardedYoutubeChannel} on a
+ * pool of {@code threads} threads, against the sequential {@link YoutubeChannel} loop.
+ * Each observer does a little CPU work so the fan-out has something to split.
+ * {@code subscribeAll} registers the whole population into an empty sharded channel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShardedBenchmark {
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    @Param({"1000000"})
+    public int subscribers;
+
+    private Observer[] observers;
+    private ForkJoinPool pool;
+    private ShardedYoutubeChannel sharded;
+    private YoutubeChannel sequential;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        observers = new Observer[subscribers];
+        for (int i = 0; i < subscribers; i++) {
+            int seed = i;
+            observers[i] = () -> blackhole.consume(spin(seed));
+        }
+        pool = new ForkJoinPool(threads);
+        sharded = new ShardedYoutubeChannel(threads * 4, 10_000, pool);
+        sequential = new YoutubeChannel();
+        for (Observer observer : observers) {
+            sharded.subscribe(observer);
+            sequential.subscribe(observer);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public void sharded() {
+        sharded.notifyObservers();
+    }
+
+    @Benchmark
+    public void youtubeChannel() {
+        sequential.notifyObservers();
+    }
+
+    @Benchmark
+    public ShardedYoutubeChannel subscribeAll() {
+        ShardedYoutubeChannel channel = new ShardedYoutubeChannel(threads * 4, 10_000, pool);
+        for (Observer observer : observers) {
+            channel.subscribe(observer);
+        }
+        return channel;
+    }
+
+    // a little CPU work so each notification is not free
+    private static long spin(long seed) {
+        long x = seed | 1;
+        for (int i = 0; i < 64; i++) {
+            x ^= x << 13;
+            x ^= x >>> 7;
+            x ^= x << 17;
+        }
+        return x & 1;
+    }
+}
@@ -0,0 +1,86 @@
+package creational;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building a {@link Product} through {@link Product.Builder}: a new builder per
+ * product, the thread's reused builder, and {@link Product#buildAll} over arrays. Run with
+ * {@code -prof gc}; {@code gc.alloc.rate.norm} is bytes per product.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BuilderBenchmark {
+    private static final int BATCH = 1024;
+
+    private final List<String> features = List.of("8GB RAM", "128GB SSD", "Snapdragon 8");
+    // a caller's mutable list; build() copies it like any other
+    private final List<String> mutableFeatures = new ArrayList<>(features);
+    private final String[] featureArray = features.toArray(new String[0]);
+
+    private final String[] names = new String[BATCH];
+    private final double[] prices = new double[BATCH];
+    private final String[][] featureSets = new String[BATCH][];
+    private final String[] descriptions = new String[BATCH];
+
+    {
+        for (int i = 0; i < BATCH; i++) {
+            names[i] = "Mobile";
+            prices[i] = 500.0 + i;
+            featureSets[i] = featureArray;
+            descriptions[i] = "Samsung m36";
+        }
+    }
+
+    @Benchmark
+    public Product build() {
+        return Product.newBuilder()
+                .setName("Mobile")
+                .setPrice(500.0)
+                .setFeatures(features)
+                .setDescription("Samsung m36")
+                .build();
+    }
+
+    @Benchmark
+    public Product buildMutableFeatures() {
+        return Product.newBuilder()
+                .setName("Mobile")
+                .setPrice(500.0)
+                .setFeatures(mutableFeatures)
+                .setDescription("Samsung m36")
+                .build();
+    }
+
+    @Benchmark
+    public Product threadBuilder() {
+        return Product.threadBuilder()
+                .setName("Mobile")
+                .setPrice(500.0)
+                .setFeatures(features)
+                .setDescription("Samsung m36")
+                .build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Product[] buildAll() {
+        return Product.buildAll(names, prices, featureSets, descriptions);
+    }
+}
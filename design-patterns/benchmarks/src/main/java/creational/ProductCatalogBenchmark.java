@@ -0,0 +1,100 @@
+package creational;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading the same rows as standalone {@link Product}s and into a {@link ProductCatalog}.
+ * The heap each one retains per row is printed once per trial. Run with {@code -prof gc}
+ * for the bytes allocated per load of {@code rows} rows, which include the per-row strings
+ * both sides build and throw away.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Thread)
+public class ProductCatalogBenchmark {
+    private static final String[] FEATURE_POOL = new String[200];
+
+    static {
+        for (int i = 0; i < FEATURE_POOL.length; i++) {
+            FEATURE_POOL[i] = "feature-" + i;
+        }
+    }
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long before = usedHeap();
+        List<Product> products = loadProducts();
+        long objects = usedHeap() - before;
+        before = usedHeap();
+        ProductCatalog catalog = loadCatalog();
+        long columns = usedHeap() - before;
+        System.out.printf("Objects: %.1f bytes/row, catalog: %.1f bytes/row (%d and %d rows)%n",
+                (double) objects / rows, (double) columns / rows, products.size(), catalog.size());
+    }
+
+    @Benchmark
+    public List<Product> objects() {
+        return loadProducts();
+    }
+
+    @Benchmark
+    public ProductCatalog catalog() {
+        return loadCatalog();
+    }
+
+    private List<Product> loadProducts() {
+        List<Product> products = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            products.add(describe(Product.newBuilder(), i).build());
+        }
+        return products;
+    }
+
+    private ProductCatalog loadCatalog() {
+        ProductCatalog catalog = new ProductCatalog(rows);
+        Product.Builder builder = Product.newBuilder();
+        for (int i = 0; i < rows; i++) {
+            describe(builder, i).addTo(catalog);
+        }
+        return catalog;
+    }
+
+    // strings are built per row, as they would be when read from a file or a database
+    private static Product.Builder describe(Product.Builder builder, int i) {
+        return builder
+                .setName("Product " + (i % 50_000))
+                .setPrice(10 + i % 1000)
+                .setFeatures(List.of(new String(FEATURE_POOL[i % 200]), new String(FEATURE_POOL[(i * 7) % 200]),
+                        new String(FEATURE_POOL[(i * 13) % 200])))
+                .setDescription("Category " + (i % 100));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,112 @@
+package creational;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding a batch of products with {@link ProductCodec} against
+ * {@link ObjectOutputStream}/{@link ObjectInputStream}. The encoded size of both formats
+ * is printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProductCodecBenchmark {
+    @Param({"1000"})
+    public int batchSize;
+
+    private List<Product> products;
+    private ByteBuffer buffer;
+    private ByteBuffer encoded;
+    private byte[] serialized;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        products = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            products.add(Product.newBuilder()
+                    .setName("Product " + i)
+                    .setPrice(10 + i * 0.5)
+                    .setFeatures(List.of("feature-" + i % 50, "feature-" + (i * 7) % 50, "feature-" + (i * 13) % 50))
+                    .setDescription("Category " + i % 20)
+                    .build());
+        }
+        buffer = ByteBuffer.allocate(1 << 20);
+        encoded = ByteBuffer.allocate(1 << 20);
+        encode(encoded);
+        encoded.flip();
+        serialized = serialize();
+        System.out.println("Codec: " + encoded.remaining() + " bytes, serialization: " + serialized.length + " bytes");
+    }
+
+    @Benchmark
+    public int codecEncode() {
+        buffer.clear();
+        encode(buffer);
+        return buffer.position();
+    }
+
+    @Benchmark
+    public void codecDecode(Blackhole blackhole) {
+        ByteBuffer in = encoded.duplicate();
+        ProductCodec.Decoder decoder = ProductCodec.newDecoder();
+        decoder.readHeader(in);
+        Product product;
+        while ((product = decoder.decode(in)) != null) {
+            blackhole.consume(product);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializationEncode() throws IOException {
+        return serialize();
+    }
+
+    @Benchmark
+    public Object serializationDecode() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+
+    private void encode(ByteBuffer out) {
+        ProductCodec.Encoder encoder = ProductCodec.newEncoder();
+        encoder.writeHeader(out);
+        for (Product product : products) {
+            encoder.encode(product, out);
+        }
+        encoder.writeEnd(out);
+    }
+
+    private byte[] serialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(products);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,60 @@
+package creational;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Double-checked locking in {@link DatabaseConnectionSingleton#getInstance()} against the
+ * holder idiom and an enum singleton, read from several threads at once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class SingletonBenchmark {
+
+    @Benchmark
+    public Object doubleCheckedLocking() {
+        return DatabaseConnectionSingleton.getInstance();
+    }
+
+    @Benchmark
+    public Object holderIdiom() {
+        return HolderSingleton.getInstance();
+    }
+
+    @Benchmark
+    public Object enumSingleton() {
+        return EnumSingleton.INSTANCE;
+    }
+
+    static class HolderSingleton {
+        private HolderSingleton() {
+        }
+
+        static HolderSingleton getInstance() {
+            return Holder.INSTANCE;
+        }
+
+        private static class Holder {
+            private static final HolderSingleton INSTANCE = new HolderSingleton();
+        }
+    }
+
+    enum EnumSingleton {
+        INSTANCE
+    }
+}
@@ -0,0 +1,77 @@
+package creational.asbtractfactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (suite, document type) dispatch: the enum tables against the string switches they
+ * replaced, which built a new factory per call and found unsupported pairs by catching
+ * the factory's exception. Run with {@code -prof gc} to see the allocation difference.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DispatchBenchmark {
+    @Param({"microsoft", "opensource"})
+    public String suite;
+
+    @Param({" Word", "pdf"})
+    public String type;
+
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public Document table() {
+        DocumentSuite documentSuite = DocumentFactoryProducer.getSuite(suite);
+        DocumentType documentType = DocumentType.parse(type);
+        return documentSuite.create(documentType);
+    }
+
+    @Benchmark
+    public Document stringSwitch() {
+        DocumentAbstractFactory factory = switch (suite.toLowerCase()) {
+            case "microsoft" -> new MicrosoftOfficeFactory();
+            case "opensource" -> new OpenSourceDocumentFactory();
+            default -> throw new IllegalArgumentException("Invalid factory type: " + suite);
+        };
+        try {
+            return switch (type.trim().toLowerCase()) {
+                case "word" -> factory.createWordDocument();
+                case "excel" -> factory.createExcelDocument();
+                case "pdf" -> factory.createPDFDocument();
+                default -> throw new IllegalArgumentException("Invalid document type: " + type);
+            };
+        } catch (UnsupportedOperationException e) {
+            return null;
+        }
+    }
+}
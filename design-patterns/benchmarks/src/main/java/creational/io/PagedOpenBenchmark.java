@@ -0,0 +1,95 @@
+package creational.io;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to open a large document and read its first bytes, eagerly against lazily.
+ * <p>
+ * The eager store decodes the whole file on open; the lazy one maps a single page. The
+ * resident set size of the fork is printed after each trial, taken from
+ * {@code /proc/self/status} where it exists.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class PagedOpenBenchmark {
+    @Param({"false", "true"})
+    public boolean paged;
+
+    @Param({"67108864"})
+    public int fileSize;
+
+    private Path directory;
+    private DocumentStore previous;
+    private BenchDocument document;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("paged-open");
+        DocumentStore store = paged
+                ? new DocumentStore(directory, FsyncPolicy.NONE, 64, 1 << 20, 1 << 20, 1 << 20, new PageCache(16L << 20))
+                : new DocumentStore(directory, FsyncPolicy.NONE, 64, 1 << 20);
+        previous = DocumentStore.getDefault();
+        DocumentStore.setDefault(store);
+        document = new BenchDocument();
+        document.setPath(directory.resolve("large.doc"));
+        document.setContent("x".repeat(fileSize));
+        document.store();
+        document.setContent("");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        document.unload();
+        DocumentStore.setDefault(previous);
+        Files.deleteIfExists(directory.resolve("large.doc"));
+        Files.deleteIfExists(directory);
+        System.out.println("VmRSS: " + residentSetSize());
+    }
+
+    @Benchmark
+    public int openAndReadFirstPage() {
+        document.load();
+        int first = document.isPaged() ? document.page(0).get(0) : document.getContent().charAt(0);
+        document.unload();
+        return first;
+    }
+
+    private static String residentSetSize() throws IOException {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.exists(status)) {
+            return "n/a";
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> line.substring("VmRSS:".length()).trim())
+                .findFirst()
+                .orElse("n/a");
+    }
+
+    private static class BenchDocument extends StoredDocument {
+        BenchDocument() {
+            super(new WordSerializer());
+        }
+    }
+}
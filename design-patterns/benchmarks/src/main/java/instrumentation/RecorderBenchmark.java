@@ -0,0 +1,46 @@
+package instrumentation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one {@link LatencyRecorder#record(long)}, alone and with four threads sharing
+ * the recorder.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecorderBenchmark {
+    private final LatencyRecorder recorder = Instrumentation.recorder("benchmark.record");
+
+    @Benchmark
+    public void record() {
+        recorder.record(1_234);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended() {
+        recorder.record(1_234);
+    }
+
+    @Benchmark
+    public long timedSection() {
+        long start = System.nanoTime();
+        recorder.recordSince(start);
+        return start;
+    }
+}
@@ -0,0 +1,71 @@
+package logging;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one {@link Log#info(String, Object)} from four threads, all writing to a file:
+ * through a {@link ConsoleSink} with {@code System.out} redirected to the file, through a
+ * {@link RingBufferSink}, and with the level set to {@code OFF}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LogBenchmark {
+    @Param({"console", "ring", "off"})
+    public String sink;
+
+    private Path file;
+    private PrintStream console;
+    private LogSink previous;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("log-benchmark", ".log");
+        console = System.out;
+        switch (sink) {
+            case "console" -> System.setOut(new PrintStream(new FileOutputStream(file.toFile()), false));
+            case "ring" -> previous = Log.setSink(RingBufferSink.toFile(file, 8192));
+            default -> Log.setLevel(logging.Level.OFF);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (previous != null) {
+            Log.setSink(previous).close();
+        }
+        System.out.flush();
+        System.setOut(console);
+        Log.setLevel(logging.Level.INFO);
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void info() {
+        Log.info("Subscriber notified {}", "chinmay");
+    }
+}
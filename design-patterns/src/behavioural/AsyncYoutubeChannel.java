@@ -0,0 +1,217 @@
+package behavioural;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link Subject} that notifies its observers asynchronously.
+ * <p>
+ * Every subscriber gets its own bounded mailbox drained by a dedicated virtual
+ * thread. Publishing only enqueues into each mailbox, so a slow subscriber delays
+ * itself and nobody else, and the cost of a publish grows with the number of
+ * subscribers rather than with how long they take. The exception is
+ * {@link OverflowPolicy#BLOCK}, which deliberately makes the publisher wait for a
+ * full mailbox to drain.
+ * <p>
+ * {@link #publish()} returns a {@link Delivery} handle to await; {@link #notifyObservers()}
+ * is fire-and-forget. Each subscriber still sees notifications in publish order.
+ */
+public class AsyncYoutubeChannel implements Subject, AutoCloseable {
+    private static final Mailbox[] EMPTY = new Mailbox[0];
+
+    private final int mailboxCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final AtomicReference<Mailbox[]> mailboxes = new AtomicReference<>(EMPTY);
+
+    public AsyncYoutubeChannel(int mailboxCapacity, OverflowPolicy overflowPolicy) {
+        if (mailboxCapacity < 1) {
+            throw new IllegalArgumentException("Mailbox capacity must be positive: " + mailboxCapacity);
+        }
+        this.mailboxCapacity = mailboxCapacity;
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy);
+    }
+
+    @Override
+    public void subscribe(Observer observer) {
+        Mailbox mailbox = new Mailbox(observer, mailboxCapacity, overflowPolicy);
+        Mailbox[] current;
+        Mailbox[] next;
+        do {
+            current = mailboxes.get();
+            next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = mailbox;
+        } while (!mailboxes.compareAndSet(current, next));
+        mailbox.start();
+    }
+
+    @Override
+    public void unsubscribe(Observer observer) {
+        Mailbox[] current;
+        Mailbox[] next;
+        Mailbox removed;
+        do {
+            current = mailboxes.get();
+            int index = indexOf(current, observer);
+            if (index < 0) {
+                return;
+            }
+            removed = current[index];
+            next = new Mailbox[current.length - 1];
+            System.arraycopy(current, 0, next, 0, index);
+            System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+        } while (!mailboxes.compareAndSet(current, next));
+        removed.close();
+    }
+
+    @Override
+    public void notifyObservers() {
+        publish();
+    }
+
+    public Delivery publish() {
+        Mailbox[] snapshot = mailboxes.get();
+        Delivery delivery = new Delivery(snapshot.length);
+        for (Mailbox mailbox : snapshot) {
+            mailbox.offer(delivery);
+        }
+        return delivery;
+    }
+
+    // stops every mailbox thread; notifications still queued count as dropped
+    @Override
+    public void close() {
+        for (Mailbox mailbox : mailboxes.getAndSet(EMPTY)) {
+            mailbox.close();
+        }
+    }
+
+    private static int indexOf(Mailbox[] mailboxes, Observer observer) {
+        for (int i = 0; i < mailboxes.length; i++) {
+            if (Objects.equals(mailboxes[i].observer, observer)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // bounded ring buffer of pending deliveries for one observer
+    private static class Mailbox implements Runnable {
+        private final Observer observer;
+        private final OverflowPolicy overflowPolicy;
+        private final Delivery[] queue;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        private final Condition notFull = lock.newCondition();
+        private int head;
+        private int count;
+        private boolean closed;
+
+        Mailbox(Observer observer, int capacity, OverflowPolicy overflowPolicy) {
+            this.observer = observer;
+            this.overflowPolicy = overflowPolicy;
+            this.queue = new Delivery[capacity];
+        }
+
+        void start() {
+            Thread.ofVirtual().name("mailbox-" + observer).start(this);
+        }
+
+        void offer(Delivery delivery) {
+            Delivery rejected = null;
+            lock.lock();
+            try {
+                if (count == queue.length && !closed) {
+                    switch (overflowPolicy) {
+                        case BLOCK -> {
+                            while (count == queue.length && !closed) {
+                                notFull.awaitUninterruptibly();
+                            }
+                        }
+                        case DROP_OLDEST -> rejected = poll();
+                        case DROP_NEWEST -> rejected = delivery;
+                    }
+                }
+                if (closed) {
+                    rejected = delivery;
+                } else if (rejected != delivery) {
+                    queue[(head + count) % queue.length] = delivery;
+                    count++;
+                    notEmpty.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+            // completing a handle may run caller callbacks, so never do it under the lock
+            if (rejected != null) {
+                rejected.dropped();
+            }
+        }
+
+        void close() {
+            Delivery[] pending;
+            lock.lock();
+            try {
+                closed = true;
+                pending = new Delivery[count];
+                for (int i = 0; i < pending.length; i++) {
+                    pending[i] = poll();
+                }
+                notEmpty.signalAll();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            for (Delivery delivery : pending) {
+                delivery.dropped();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Delivery delivery;
+                lock.lock();
+                try {
+                    while (count == 0 && !closed) {
+                        notEmpty.awaitUninterruptibly();
+                    }
+                    if (closed) {
+                        return;
+                    }
+                    delivery = poll();
+                    notFull.signal();
+                } finally {
+                    lock.unlock();
+                }
+                boolean notified = false;
+                try {
+                    observer.notified();
+                    notified = true;
+                } catch (RuntimeException e) {
+                    // counted as failed; the mailbox keeps serving the observer
+                } catch (Error e) {
+                    // this thread is going down, so drop what is queued behind this delivery and refuse more
+                    close();
+                    throw e;
+                } finally {
+                    if (notified) {
+                        delivery.delivered();
+                    } else {
+                        delivery.failed();
+                    }
+                }
+            }
+        }
+
+        private Delivery poll() {
+            Delivery delivery = queue[head];
+            queue[head] = null;
+            head = (head + 1) % queue.length;
+            count--;
+            return delivery;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package behavioural;
+
+import logging.Log;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link EventSubject} that coalesces published events into batches.
+ * <p>
+ * A batch is closed when it reaches {@code maxBatchSize} events, or when
+ * {@code window} has passed since its first event, whichever comes first. A zero
+ * window disables the timer and batches are then cut on size or {@link #flush()}
+ * only. Size-triggered batches are delivered on a publishing thread and
+ * window-triggered ones on the channel's timer thread; either way batches reach
+ * the observers one at a time and in publish order.
+ * <p>
+ * An observer that throws is logged and skipped; the others still get the batch. An
+ * observer that publishes from {@code onBatch} only queues the batch it cuts, and that
+ * batch is delivered once every observer has seen the current one.
+ */
+public class BatchingChannel<E> implements EventSubject<E>, AutoCloseable {
+    @SuppressWarnings("rawtypes")
+    private static final EventObserver[] EMPTY = new EventObserver[0];
+
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final ScheduledExecutorService timer;
+    @SuppressWarnings("unchecked")
+    private final AtomicReference<EventObserver<? super E>[]> observers = new AtomicReference<>(EMPTY);
+
+    private final ReentrantLock bufferLock = new ReentrantLock();
+    // held while cut batches are delivered, so batches never overtake each other
+    private final ReentrantLock deliveryLock = new ReentrantLock();
+    // cut batches waiting for delivery, guarded by bufferLock like everything below
+    private final ArrayDeque<List<E>> ready = new ArrayDeque<>();
+    private List<E> pending;
+    private boolean closed;
+    // bumped on every cut so a stale window timer does not flush the next batch early
+    private long batchGeneration;
+
+    public BatchingChannel(int maxBatchSize, Duration window) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + maxBatchSize);
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = window.toNanos();
+        this.pending = new ArrayList<>(maxBatchSize);
+        this.timer = windowNanos > 0 ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "batching-channel-timer");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    @Override
+    public void subscribe(EventObserver<? super E> observer) {
+        EventObserver<? super E>[] current;
+        EventObserver<? super E>[] next;
+        do {
+            current = observers.get();
+            next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = observer;
+        } while (!observers.compareAndSet(current, next));
+    }
+
+    @Override
+    public void unsubscribe(EventObserver<? super E> observer) {
+        EventObserver<? super E>[] current;
+        EventObserver<? super E>[] next;
+        do {
+            current = observers.get();
+            int index = -1;
+            for (int i = 0; i < current.length; i++) {
+                if (Objects.equals(current[i], observer)) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return;
+            }
+            next = Arrays.copyOf(current, current.length - 1);
+            System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+        } while (!observers.compareAndSet(current, next));
+    }
+
+    @Override
+    public void publish(E event) {
+        boolean full;
+        long generation = -1;
+        bufferLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Channel is closed");
+            }
+            pending.add(event);
+            full = pending.size() >= maxBatchSize;
+            if (full) {
+                // cut here, under the lock, so no other publisher can push this batch past the limit
+                cut();
+            } else if (pending.size() == 1 && timer != null) {
+                generation = batchGeneration;
+            }
+        } finally {
+            bufferLock.unlock();
+        }
+        if (full) {
+            deliverReady();
+        } else if (generation >= 0) {
+            long windowGeneration = generation;
+            try {
+                timer.schedule(() -> flush(windowGeneration), windowNanos, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                // closed after the event was added; close() flushed it already
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        flush(-1);
+    }
+
+    // delivers what is pending; later publishes throw IllegalStateException
+    @Override
+    public void close() {
+        bufferLock.lock();
+        try {
+            closed = true;
+        } finally {
+            bufferLock.unlock();
+        }
+        flush();
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+    }
+
+    // generation -1 flushes unconditionally, otherwise only if that batch is still open
+    private void flush(long generation) {
+        bufferLock.lock();
+        try {
+            if (pending.isEmpty() || (generation >= 0 && generation != batchGeneration)) {
+                return;
+            }
+            cut();
+        } finally {
+            bufferLock.unlock();
+        }
+        deliverReady();
+    }
+
+    // caller holds bufferLock
+    private void cut() {
+        ready.add(pending);
+        pending = new ArrayList<>(maxBatchSize);
+        batchGeneration++;
+    }
+
+    // batches are queued in cut order under bufferLock and delivered in that order under deliveryLock
+    private void deliverReady() {
+        if (deliveryLock.isHeldByCurrentThread()) {
+            // published from onBatch; the loop below picks the batch up after the current one
+            return;
+        }
+        deliveryLock.lock();
+        try {
+            while (true) {
+                List<E> batch;
+                bufferLock.lock();
+                try {
+                    batch = ready.poll();
+                } finally {
+                    bufferLock.unlock();
+                }
+                if (batch == null) {
+                    return;
+                }
+                List<E> view = Collections.unmodifiableList(batch);
+                for (EventObserver<? super E> observer : observers.get()) {
+                    try {
+                        observer.onBatch(view);
+                    } catch (RuntimeException e) {
+                        Log.warn("Observer {} failed on a batch: {}", observer, e);
+                    }
+                }
+            }
+        } finally {
+            deliveryLock.unlock();
+        }
+    }
+}
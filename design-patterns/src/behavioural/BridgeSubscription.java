@@ -0,0 +1,150 @@
+package behavioural;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Demand-tracking {@link Flow.Subscription} used by {@link FlowBridge}.
+ * <p>
+ * Items pushed by the subject wait in a bounded buffer until the subscriber has asked
+ * for them with {@link #request(long)}. A full buffer is handled by the
+ * {@link OverflowPolicy}. Signals to the subscriber are serialised by a work-in-progress
+ * counter, so whichever thread offers or requests drains the buffer and the subscriber
+ * never sees concurrent calls. That includes the {@code onError} for an invalid request,
+ * which is handed to the drain loop rather than signalled from {@link #request(long)}.
+ */
+class BridgeSubscription<T> implements Flow.Subscription {
+    private final Flow.Subscriber<? super T> subscriber;
+    private final OverflowPolicy overflowPolicy;
+    private final Object[] buffer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final Runnable onCancel;
+    private int head;
+    private int count;
+    private volatile boolean cancelled;
+    // set by an invalid request and signalled by the drain loop
+    private volatile Throwable pendingError;
+
+    BridgeSubscription(Flow.Subscriber<? super T> subscriber, int capacity, OverflowPolicy overflowPolicy,
+                       Runnable onCancel) {
+        this.subscriber = subscriber;
+        this.overflowPolicy = overflowPolicy;
+        this.buffer = new Object[capacity];
+        this.onCancel = onCancel;
+    }
+
+    void offer(T item) {
+        lock.lock();
+        try {
+            if (count == buffer.length) {
+                switch (overflowPolicy) {
+                    case BLOCK -> {
+                        while (count == buffer.length && !cancelled) {
+                            notFull.awaitUninterruptibly();
+                        }
+                    }
+                    case DROP_OLDEST -> poll();
+                    case DROP_NEWEST -> {
+                        return;
+                    }
+                }
+            }
+            if (cancelled) {
+                return;
+            }
+            buffer[(head + count) % buffer.length] = item;
+            count++;
+        } finally {
+            lock.unlock();
+        }
+        drain();
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            if (pendingError == null) {
+                pendingError = new IllegalArgumentException("Demand must be positive: " + n);
+            }
+            drain();
+            return;
+        }
+        // saturate at Long.MAX_VALUE, which means unbounded
+        demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+        drain();
+    }
+
+    @Override
+    public void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        onCancel.run();
+        lock.lock();
+        try {
+            while (count > 0) {
+                poll();
+            }
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (!cancelled) {
+                Throwable error = pendingError;
+                if (error != null) {
+                    cancel();
+                    subscriber.onError(error);
+                    break;
+                }
+                if (demand.get() == 0) {
+                    break;
+                }
+                T item;
+                lock.lock();
+                try {
+                    if (count == 0) {
+                        break;
+                    }
+                    item = poll();
+                    notFull.signal();
+                } finally {
+                    lock.unlock();
+                }
+                if (demand.get() != Long.MAX_VALUE) {
+                    demand.decrementAndGet();
+                }
+                try {
+                    subscriber.onNext(item);
+                } catch (RuntimeException e) {
+                    cancel();
+                    subscriber.onError(e);
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T poll() {
+        T item = (T) buffer[head];
+        buffer[head] = null;
+        head = (head + 1) % buffer.length;
+        count--;
+        return item;
+    }
+}
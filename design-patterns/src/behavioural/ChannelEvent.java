@@ -0,0 +1,12 @@
+package behavioural;
+
+import java.util.Set;
+
+/**
+ * Notification with the attributes subscribers can filter on.
+ */
+public record ChannelEvent(String topic, Set<String> tags, int priority) {
+    public ChannelEvent {
+        tags = Set.copyOf(tags);
+    }
+}
@@ -0,0 +1,71 @@
+package behavioural;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Thread-safe {@link Subject} with lock-free reads.
+ * <p>
+ * Subscribers are kept in an immutable array snapshot. {@link #notifyObservers()}
+ * iterates whatever snapshot was current when it started, so it never sees a
+ * half-applied change and never throws {@link java.util.ConcurrentModificationException}.
+ * {@link #subscribe(Observer)} and {@link #unsubscribe(Observer)} copy the array,
+ * apply the change and publish the new snapshot with a compare-and-set.
+ * <p>
+ * This suits channels that notify far more often than their subscriber list changes.
+ */
+public class ConcurrentYoutubeChannel implements Subject {
+    private static final Observer[] EMPTY = new Observer[0];
+
+    private final AtomicReference<Observer[]> subscribers = new AtomicReference<>(EMPTY);
+
+    @Override
+    public void subscribe(Observer observer) {
+        Observer[] current;
+        Observer[] next;
+        do {
+            current = subscribers.get();
+            next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = observer;
+        } while (!subscribers.compareAndSet(current, next));
+    }
+
+    @Override
+    public void unsubscribe(Observer observer) {
+        Observer[] current;
+        Observer[] next;
+        do {
+            current = subscribers.get();
+            int index = indexOf(current, observer);
+            if (index < 0) {
+                return;
+            }
+            next = new Observer[current.length - 1];
+            System.arraycopy(current, 0, next, 0, index);
+            System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+        } while (!subscribers.compareAndSet(current, next));
+    }
+
+    @Override
+    public void notifyObservers() {
+        // a single volatile read; later changes publish a new array and do not affect this loop
+        for (Observer observer : subscribers.get()) {
+            observer.notified();
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.get().length;
+    }
+
+    // same first-match semantics as ArrayList.remove(Object)
+    private static int indexOf(Observer[] observers, Observer observer) {
+        for (int i = 0; i < observers.length; i++) {
+            if (Objects.equals(observers[i], observer)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,91 @@
+package behavioural;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Completion handle for one asynchronous publish.
+ * <p>
+ * It completes once every subscriber that was registered at publish time has either
+ * been notified, dropped the notification because of its {@link OverflowPolicy},
+ * or thrown from {@link Observer#notified()}. Publishers that do not care can
+ * simply ignore it.
+ */
+public class Delivery {
+    private final AtomicInteger remaining;
+    private final AtomicInteger delivered = new AtomicInteger();
+    private final AtomicInteger dropped = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final CompletableFuture<Delivery> completion = new CompletableFuture<>();
+
+    Delivery(int recipients) {
+        this.remaining = new AtomicInteger(recipients);
+        if (recipients == 0) {
+            completion.complete(this);
+        }
+    }
+
+    void delivered() {
+        delivered.incrementAndGet();
+        countDown();
+    }
+
+    void dropped() {
+        dropped.incrementAndGet();
+        countDown();
+    }
+
+    void failed() {
+        failed.incrementAndGet();
+        countDown();
+    }
+
+    private void countDown() {
+        if (remaining.decrementAndGet() == 0) {
+            completion.complete(this);
+        }
+    }
+
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    public void await() throws InterruptedException {
+        try {
+            completion.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            completion.get(timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // a copy, so callers cannot complete the handle themselves
+    public CompletableFuture<Delivery> toCompletableFuture() {
+        return completion.copy();
+    }
+
+    public int deliveredCount() {
+        return delivered.get();
+    }
+
+    public int droppedCount() {
+        return dropped.get();
+    }
+
+    public int failedCount() {
+        return failed.get();
+    }
+}
@@ -11,6 +11,7 @@ public class Demo {
         youtubeChannel.subscribe(subscriber2);
         youtubeChannel.subscribe(subscriber3);
 
-        youtubeChannel.notifyObservers();
+        // times every notification when started with -Dpatterns.instrumentation=true
+        InstrumentedSubject.wrap(youtubeChannel).notifyObservers();
     }
 }
@@ -0,0 +1,74 @@
+package behavioural;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Predicate over {@link ChannelEvent} attributes.
+ * <p>
+ * An event matches when its topic equals {@code topic} (if set), it carries at least one
+ * of {@code anyTags} (if any are given) and its priority is at least {@code minPriority}.
+ * Filters are immutable; every {@code with} method returns a new one.
+ */
+public class EventFilter {
+    private static final EventFilter ANY = new EventFilter(null, Set.of(), Integer.MIN_VALUE);
+
+    private final String topic;
+    private final Set<String> anyTags;
+    private final int minPriority;
+
+    private EventFilter(String topic, Set<String> anyTags, int minPriority) {
+        this.topic = topic;
+        this.anyTags = anyTags;
+        this.minPriority = minPriority;
+    }
+
+    public static EventFilter any() {
+        return ANY;
+    }
+
+    public EventFilter withTopic(String topic) {
+        return new EventFilter(topic, anyTags, minPriority);
+    }
+
+    public EventFilter withAnyTag(String... tags) {
+        // duplicates are harmless, unlike in Set.of
+        return new EventFilter(topic, Set.copyOf(Arrays.asList(tags)), minPriority);
+    }
+
+    public EventFilter withMinPriority(int minPriority) {
+        return new EventFilter(topic, anyTags, minPriority);
+    }
+
+    public boolean matches(ChannelEvent event) {
+        if (event.priority() < minPriority) {
+            return false;
+        }
+        if (topic != null && !topic.equals(event.topic())) {
+            return false;
+        }
+        return anyTags.isEmpty() || firstSharedTag(event) != null;
+    }
+
+    String topic() {
+        return topic;
+    }
+
+    Set<String> anyTags() {
+        return anyTags;
+    }
+
+    int minPriority() {
+        return minPriority;
+    }
+
+    // iterates the event's tags so the answer is the same whichever index list asks
+    String firstSharedTag(ChannelEvent event) {
+        for (String tag : event.tags()) {
+            if (anyTags.contains(tag)) {
+                return tag;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,285 @@
+package behavioural;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of notifications, stored in memory-mapped segment files.
+ * <p>
+ * Every record is addressed by its offset, a position in one endless byte log. The log
+ * is cut into fixed-size segments named after the offset of their first byte; a
+ * record that does not fit in the current segment starts the next one. Each record
+ * is laid out as
+ * <pre>
+ *   int recordSize | int crc32(timestamp, payload) | long timestamp | payload
+ * </pre>
+ * and the size is written last, so a reader never sees a half-written record. A zero
+ * size marks the unused tail of a segment.
+ * <p>
+ * On open the last segment is scanned and the write position is set after the last
+ * record whose checksum matches, which recovers cleanly from a crash in the middle of
+ * an append. Sealed segments are deleted, oldest first, once the journal exceeds
+ * {@code maxBytes} or their newest record is older than {@code maxAge}. Size is checked
+ * on open and whenever a segment is sealed; age is also checked by the first append
+ * after the oldest sealed segment expires, so a journal that stops rolling still ages out.
+ * <p>
+ * One thread may append while any number of threads replay. Appending to a closed
+ * journal throws {@link IllegalStateException}.
+ */
+public class EventJournal implements AutoCloseable {
+    private static final int HEADER = 16;
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxBytes;
+    private final long maxAgeMillis;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer timestampBytes = ByteBuffer.allocate(Long.BYTES);
+    private Segment active;
+    // the oldest sealed segment expires once the clock passes this; only touched under the lock
+    private long retentionDue = Long.MAX_VALUE;
+    private boolean closed;
+    // offset just past the last complete record; readers never go beyond it
+    private volatile long writeOffset;
+
+    public EventJournal(Path directory, int segmentSize, long maxBytes, Duration maxAge) throws IOException {
+        if (segmentSize <= HEADER) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.maxBytes = maxBytes;
+        this.maxAgeMillis = maxAge.toMillis();
+        recover();
+    }
+
+    public synchronized long append(byte[] payload) {
+        checkOpen();
+        int recordSize = HEADER + payload.length;
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("Record of " + recordSize + " bytes exceeds segment size " + segmentSize);
+        }
+        if (active.position + recordSize > segmentSize) {
+            roll();
+        }
+
+        long timestamp = System.currentTimeMillis();
+        if (timestamp > retentionDue) {
+            enforceRetention();
+        }
+        int checksum = checksum(timestamp, ByteBuffer.wrap(payload));
+
+        MappedByteBuffer buffer = active.buffer;
+        int position = active.position;
+        buffer.putInt(position + 4, checksum);
+        buffer.putLong(position + 8, timestamp);
+        buffer.put(position + HEADER, payload);
+        buffer.putInt(position, recordSize);
+
+        long offset = active.baseOffset + position;
+        active.position += recordSize;
+        active.lastTimestamp = timestamp;
+        writeOffset = active.baseOffset + active.position;
+        return offset;
+    }
+
+    /**
+     * Hands every record from {@code fromOffset} up to the current end of the journal to
+     * {@code reader} and returns the offset to continue from. Offsets that were already
+     * removed by retention resume at the oldest record still kept.
+     */
+    public long replay(long fromOffset, RecordReader reader) {
+        long end = writeOffset;
+        long offset = Math.max(fromOffset, firstOffset());
+        while (offset < end) {
+            Map.Entry<Long, Segment> entry = segments.floorEntry(offset);
+            if (entry == null) {
+                break;
+            }
+            Segment segment = entry.getValue();
+            ByteBuffer view = segment.buffer.duplicate();
+            int position = (int) (offset - segment.baseOffset);
+            int recordSize = position + HEADER <= segmentSize ? view.getInt(position) : 0;
+            if (recordSize == 0) {
+                // end of a sealed segment, continue with the next one
+                Long next = segments.higherKey(segment.baseOffset);
+                if (next == null) {
+                    break;
+                }
+                offset = next;
+                continue;
+            }
+            long timestamp = view.getLong(position + 8);
+            ByteBuffer payload = view.slice(position + HEADER, recordSize - HEADER).asReadOnlyBuffer();
+            reader.onRecord(offset, timestamp, payload);
+            offset += recordSize;
+        }
+        return offset;
+    }
+
+    public long firstOffset() {
+        Map.Entry<Long, Segment> first = segments.firstEntry();
+        return first == null ? 0 : first.getKey();
+    }
+
+    public long endOffset() {
+        return writeOffset;
+    }
+
+    // flushes the active segment to disk; appends themselves only reach the page cache
+    public synchronized void sync() {
+        checkOpen();
+        active.buffer.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        active.buffer.force();
+        closed = true;
+        for (Segment segment : segments.values()) {
+            segment.channel.close();
+        }
+    }
+
+    public interface RecordReader {
+        void onRecord(long offset, long timestamp, ByteBuffer payload);
+    }
+
+    private void recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).forEach(files::add);
+        }
+        files.sort(null);
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            Segment segment = map(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())));
+            scan(segment);
+            segments.put(segment.baseOffset, segment);
+        }
+        if (segments.isEmpty()) {
+            Segment first = map(0);
+            segments.put(0L, first);
+        }
+        active = segments.lastEntry().getValue();
+        // anything after the last valid record in the active segment is a torn write
+        for (int i = active.position; i < segmentSize && i < active.position + HEADER; i++) {
+            active.buffer.put(i, (byte) 0);
+        }
+        writeOffset = active.baseOffset + active.position;
+        enforceRetention();
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed: " + directory);
+        }
+    }
+
+    // finds the end of the valid records in a segment
+    private void scan(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int position = 0;
+        while (position + HEADER <= segmentSize) {
+            int recordSize = buffer.getInt(position);
+            if (recordSize < HEADER || position + recordSize > segmentSize) {
+                break;
+            }
+            long timestamp = buffer.getLong(position + 8);
+            ByteBuffer payload = buffer.slice(position + HEADER, recordSize - HEADER);
+            if (checksum(timestamp, payload) != buffer.getInt(position + 4)) {
+                break;
+            }
+            segment.lastTimestamp = timestamp;
+            position += recordSize;
+        }
+        segment.position = position;
+    }
+
+    private int checksum(long timestamp, ByteBuffer payload) {
+        crc.reset();
+        timestampBytes.clear();
+        timestampBytes.putLong(0, timestamp);
+        crc.update(timestampBytes);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private void roll() {
+        long nextBase = active.baseOffset + segmentSize;
+        try {
+            active.buffer.force();
+            active = map(nextBase);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segments.put(nextBase, active);
+        enforceRetention();
+    }
+
+    private void enforceRetention() {
+        long cutoff = System.currentTimeMillis() - maxAgeMillis;
+        long total = (long) segments.size() * segmentSize;
+        for (Segment segment : segments.values()) {
+            if (segment == active || (total <= maxBytes && segment.lastTimestamp >= cutoff)) {
+                break;
+            }
+            segments.remove(segment.baseOffset);
+            total -= segmentSize;
+            try {
+                segment.channel.close();
+                // the mapping stays valid for readers that still hold it until it is collected
+                Files.deleteIfExists(pathOf(segment.baseOffset));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        Segment oldest = segments.firstEntry().getValue();
+        retentionDue = oldest == active || oldest.lastTimestamp > Long.MAX_VALUE - maxAgeMillis
+                ? Long.MAX_VALUE : oldest.lastTimestamp + maxAgeMillis;
+    }
+
+    private Segment map(long baseOffset) throws IOException {
+        FileChannel channel = FileChannel.open(pathOf(baseOffset),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        return new Segment(baseOffset, channel, buffer);
+    }
+
+    private Path pathOf(long baseOffset) {
+        return directory.resolve(String.format("%020d%s", baseOffset, SUFFIX));
+    }
+
+    private static class Segment {
+        private final long baseOffset;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        // only touched by the appending thread and during recovery
+        private int position;
+        private long lastTimestamp;
+
+        Segment(long baseOffset, FileChannel channel, MappedByteBuffer buffer) {
+            this.baseOffset = baseOffset;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package behavioural;
+
+import java.util.List;
+
+/**
+ * Typed counterpart of {@link Observer}.
+ * Events arrive in batches so a burst costs one call per subscriber instead of one per event.
+ */
+public interface EventObserver<E> {
+    void onBatch(List<? extends E> events);
+}
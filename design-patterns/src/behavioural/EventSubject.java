@@ -0,0 +1,16 @@
+package behavioural;
+
+/**
+ * Typed counterpart of {@link Subject}: publishers emit events and the subject decides
+ * when the pending events are handed to its {@link EventObserver}s.
+ */
+public interface EventSubject<E> {
+    void subscribe(EventObserver<? super E> observer);
+
+    void unsubscribe(EventObserver<? super E> observer);
+
+    void publish(E event);
+
+    // delivers whatever is pending without waiting for the batch boundary
+    void flush();
+}
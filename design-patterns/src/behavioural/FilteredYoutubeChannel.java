@@ -0,0 +1,199 @@
+package behavioural;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link EventSubject} that only wakes the subscribers whose {@link EventFilter} matches.
+ * <p>
+ * Each registration is indexed by its most selective attribute: by topic when the filter
+ * names one, otherwise under every tag it accepts, otherwise by its minimum priority,
+ * and in a wildcard bucket only when it filters on nothing at all. A publish looks up
+ * the event's topic and each of its tags, takes the priority buckets whose threshold the
+ * event reaches, checks the full filter on those candidates only, and never touches
+ * subscribers filed under other keys. Its cost therefore follows the number of
+ * candidates rather than the number of subscribers.
+ * <p>
+ * A bucket appends into a growable array and publishes an immutable view of it, so
+ * subscribing is O(1) per key and publishing takes no lock. The priority thresholds are
+ * kept sorted in a small array that is only rebuilt when a new threshold appears.
+ */
+public class FilteredYoutubeChannel implements EventSubject<ChannelEvent> {
+    private final Map<String, Bucket> byTopic = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> byTag = new ConcurrentHashMap<>();
+    private volatile PriorityIndex byPriority = PriorityIndex.EMPTY;
+    private final Bucket wildcard = new Bucket();
+
+    @Override
+    public void subscribe(EventObserver<? super ChannelEvent> observer) {
+        subscribe(observer, EventFilter.any());
+    }
+
+    public synchronized void subscribe(EventObserver<? super ChannelEvent> observer, EventFilter filter) {
+        Registration registration = new Registration(observer, filter);
+        if (filter.topic() != null) {
+            byTopic.computeIfAbsent(filter.topic(), topic -> new Bucket()).add(registration);
+        } else if (!filter.anyTags().isEmpty()) {
+            for (String tag : filter.anyTags()) {
+                byTag.computeIfAbsent(tag, key -> new Bucket()).add(registration);
+            }
+        } else if (filter.minPriority() != Integer.MIN_VALUE) {
+            byPriority = byPriority.withBucketFor(filter.minPriority());
+            byPriority.bucketFor(filter.minPriority()).add(registration);
+        } else {
+            wildcard.add(registration);
+        }
+    }
+
+    // removes every registration of the observer, whatever its filter
+    @Override
+    public synchronized void unsubscribe(EventObserver<? super ChannelEvent> observer) {
+        byTopic.values().removeIf(bucket -> bucket.remove(observer));
+        byTag.values().removeIf(bucket -> bucket.remove(observer));
+        byPriority = byPriority.without(observer);
+        wildcard.remove(observer);
+    }
+
+    @Override
+    public void publish(ChannelEvent event) {
+        List<ChannelEvent> batch = List.of(event);
+        if (event.topic() != null) {
+            Bucket bucket = byTopic.get(event.topic());
+            if (bucket != null) {
+                deliver(bucket.view, event, batch, null);
+            }
+        }
+        for (String tag : event.tags()) {
+            Bucket bucket = byTag.get(tag);
+            if (bucket != null) {
+                deliver(bucket.view, event, batch, tag);
+            }
+        }
+        PriorityIndex priorities = byPriority;
+        for (int i = 0, reached = priorities.reachedBy(event.priority()); i < reached; i++) {
+            deliver(priorities.buckets[i].view, event, batch, null);
+        }
+        deliver(wildcard.view, event, batch, null);
+    }
+
+    // events are delivered as they are published, there is nothing to flush
+    @Override
+    public void flush() {
+    }
+
+    private static void deliver(View candidates, ChannelEvent event, List<ChannelEvent> batch, String viaTag) {
+        Registration[] registrations = candidates.registrations();
+        for (int i = 0, size = candidates.size(); i < size; i++) {
+            Registration candidate = registrations[i];
+            if (!candidate.filter().matches(event)) {
+                continue;
+            }
+            // a registration filed under several tags is only notified through the first one the event hits
+            if (viaTag != null && !viaTag.equals(candidate.filter().firstSharedTag(event))) {
+                continue;
+            }
+            candidate.observer().onBatch(batch);
+        }
+    }
+
+    private record Registration(EventObserver<? super ChannelEvent> observer, EventFilter filter) {
+    }
+
+    // registrations[0 .. size) are live; slots past size may be filled by later appends
+    private record View(Registration[] registrations, int size) {
+        static final View EMPTY = new View(new Registration[0], 0);
+    }
+
+    // registrations under one index key; written under the channel lock, read without one
+    private static final class Bucket {
+        // a given array only ever grows in place, so a published view never sees its
+        // slots change; removal switches to a fresh array
+        private volatile View view = View.EMPTY;
+
+        void add(Registration registration) {
+            View current = view;
+            Registration[] registrations = current.registrations();
+            if (current.size() == registrations.length) {
+                registrations = Arrays.copyOf(registrations, Math.max(4, registrations.length * 2));
+            }
+            registrations[current.size()] = registration;
+            view = new View(registrations, current.size() + 1);
+        }
+
+        // returns whether the bucket is empty afterwards
+        boolean remove(EventObserver<?> observer) {
+            View current = view;
+            Registration[] kept = new Registration[current.size()];
+            int size = 0;
+            for (int i = 0; i < current.size(); i++) {
+                Registration registration = current.registrations()[i];
+                if (!Objects.equals(registration.observer(), observer)) {
+                    kept[size++] = registration;
+                }
+            }
+            if (size != current.size()) {
+                view = new View(kept, size);
+            }
+            return size == 0;
+        }
+    }
+
+    // buckets of priority-only filters, sorted by ascending threshold
+    private static final class PriorityIndex {
+        static final PriorityIndex EMPTY = new PriorityIndex(new int[0], new Bucket[0]);
+
+        private final int[] thresholds;
+        private final Bucket[] buckets;
+
+        private PriorityIndex(int[] thresholds, Bucket[] buckets) {
+            this.thresholds = thresholds;
+            this.buckets = buckets;
+        }
+
+        // number of leading buckets whose threshold is at most the priority
+        int reachedBy(int priority) {
+            int index = Arrays.binarySearch(thresholds, priority);
+            return index >= 0 ? index + 1 : -index - 1;
+        }
+
+        Bucket bucketFor(int threshold) {
+            return buckets[Arrays.binarySearch(thresholds, threshold)];
+        }
+
+        // this index if it already has the threshold, else a copy with an empty bucket for it
+        PriorityIndex withBucketFor(int threshold) {
+            int index = Arrays.binarySearch(thresholds, threshold);
+            if (index >= 0) {
+                return this;
+            }
+            int at = -index - 1;
+            int[] nextThresholds = new int[thresholds.length + 1];
+            Bucket[] nextBuckets = new Bucket[buckets.length + 1];
+            System.arraycopy(thresholds, 0, nextThresholds, 0, at);
+            System.arraycopy(buckets, 0, nextBuckets, 0, at);
+            nextThresholds[at] = threshold;
+            nextBuckets[at] = new Bucket();
+            System.arraycopy(thresholds, at, nextThresholds, at + 1, thresholds.length - at);
+            System.arraycopy(buckets, at, nextBuckets, at + 1, buckets.length - at);
+            return new PriorityIndex(nextThresholds, nextBuckets);
+        }
+
+        // removes the observer everywhere and drops the buckets that end up empty
+        PriorityIndex without(EventObserver<?> observer) {
+            int[] nextThresholds = new int[thresholds.length];
+            Bucket[] nextBuckets = new Bucket[buckets.length];
+            int size = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                if (!buckets[i].remove(observer)) {
+                    nextThresholds[size] = thresholds[i];
+                    nextBuckets[size++] = buckets[i];
+                }
+            }
+            return size == buckets.length ? this
+                    : new PriorityIndex(Arrays.copyOf(nextThresholds, size), Arrays.copyOf(nextBuckets, size));
+        }
+    }
+}
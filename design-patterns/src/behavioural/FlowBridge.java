@@ -0,0 +1,58 @@
+package behavioural;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Exposes subjects as {@link Flow.Publisher}s so they can feed reactive pipelines.
+ * <p>
+ * Every {@link Flow.Subscriber} is registered on the subject as an ordinary observer.
+ * What the subject pushes is buffered per subscriber, up to {@code bufferCapacity}
+ * items, and only handed on as the subscriber requests it; the {@link OverflowPolicy}
+ * decides what a full buffer does. Cancelling unsubscribes the observer again.
+ * Subjects have no notion of completion, so {@code onComplete} is never signalled.
+ */
+public final class FlowBridge {
+
+    private FlowBridge() {
+    }
+
+    // a plain Subject carries no payload, so each notification becomes its sequence number, starting at 1
+    public static Flow.Publisher<Long> publisher(Subject subject, int bufferCapacity, OverflowPolicy overflowPolicy) {
+        checkCapacity(bufferCapacity);
+        return subscriber -> {
+            AtomicLong sequence = new AtomicLong();
+            Observer[] observer = new Observer[1];
+            BridgeSubscription<Long> subscription = new BridgeSubscription<>(subscriber, bufferCapacity,
+                    overflowPolicy, () -> subject.unsubscribe(observer[0]));
+            observer[0] = () -> subscription.offer(sequence.incrementAndGet());
+            subject.subscribe(observer[0]);
+            subscriber.onSubscribe(subscription);
+        };
+    }
+
+    public static <E> Flow.Publisher<E> publisher(EventSubject<E> subject, int bufferCapacity,
+                                                  OverflowPolicy overflowPolicy) {
+        checkCapacity(bufferCapacity);
+        return subscriber -> {
+            // a holder rather than a one-element array, which would have to be a raw generic array
+            AtomicReference<EventObserver<E>> observer = new AtomicReference<>();
+            BridgeSubscription<E> subscription = new BridgeSubscription<>(subscriber, bufferCapacity,
+                    overflowPolicy, () -> subject.unsubscribe(observer.get()));
+            observer.set(events -> {
+                for (E event : events) {
+                    subscription.offer(event);
+                }
+            });
+            subject.subscribe(observer.get());
+            subscriber.onSubscribe(subscription);
+        };
+    }
+
+    private static void checkCapacity(int bufferCapacity) {
+        if (bufferCapacity < 1) {
+            throw new IllegalArgumentException("Buffer capacity must be positive: " + bufferCapacity);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package behavioural;
+
+import instrumentation.Instrumentation;
+import instrumentation.LatencyRecorder;
+
+/**
+ * Decorator that records how long {@link Subject#notifyObservers()} takes, per subject
+ * class. Registration calls go straight to the wrapped subject.
+ */
+public class InstrumentedSubject implements Subject {
+    private final Subject delegate;
+    private final LatencyRecorder notifyLatency;
+
+    private InstrumentedSubject(Subject delegate) {
+        this.delegate = delegate;
+        this.notifyLatency = Instrumentation.recorder("subject.notifyObservers." + delegate.getClass().getSimpleName());
+    }
+
+    // the subject itself while instrumentation is disabled
+    public static Subject wrap(Subject subject) {
+        return Instrumentation.isEnabled() ? new InstrumentedSubject(subject) : subject;
+    }
+
+    @Override
+    public void subscribe(Observer observer) {
+        delegate.subscribe(observer);
+    }
+
+    @Override
+    public void unsubscribe(Observer observer) {
+        delegate.unsubscribe(observer);
+    }
+
+    @Override
+    public Subscription register(Observer observer) {
+        return delegate.register(observer);
+    }
+
+    @Override
+    public void notifyObservers() {
+        long start = System.nanoTime();
+        try {
+            delegate.notifyObservers();
+        } finally {
+            notifyLatency.recordSince(start);
+        }
+    }
+}
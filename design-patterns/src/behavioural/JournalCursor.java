@@ -0,0 +1,39 @@
+package behavioural;
+
+/**
+ * A subscriber's read position in an {@link EventJournal}.
+ * <p>
+ * The position only moves forward when {@link #catchUp} is called, so a subscriber that
+ * stores {@link #position()} can restart later and continue where it stopped.
+ */
+public class JournalCursor {
+    private final EventJournal journal;
+    private long position;
+
+    public JournalCursor(EventJournal journal, long position) {
+        this.journal = journal;
+        this.position = position;
+    }
+
+    public long position() {
+        return position;
+    }
+
+    public void seek(long position) {
+        this.position = position;
+    }
+
+    // replays everything since the last call and returns how many records were read
+    public int catchUp(EventJournal.RecordReader reader) {
+        int[] count = new int[1];
+        position = journal.replay(position, (offset, timestamp, payload) -> {
+            count[0]++;
+            reader.onRecord(offset, timestamp, payload);
+        });
+        return count[0];
+    }
+
+    public int catchUp(Observer observer) {
+        return catchUp((offset, timestamp, payload) -> observer.notified());
+    }
+}
@@ -0,0 +1,48 @@
+package behavioural;
+
+/**
+ * {@link Subject} decorator that records every notification in an {@link EventJournal}
+ * before passing it on, so subscribers that join late or restart can replay what they
+ * missed through a {@link JournalCursor}.
+ */
+public class JournaledYoutubeChannel implements Subject {
+    private static final byte[] NO_PAYLOAD = new byte[0];
+
+    private final Subject delegate;
+    private final EventJournal journal;
+
+    public JournaledYoutubeChannel(Subject delegate, EventJournal journal) {
+        this.delegate = delegate;
+        this.journal = journal;
+    }
+
+    @Override
+    public void subscribe(Observer observer) {
+        delegate.subscribe(observer);
+    }
+
+    @Override
+    public void unsubscribe(Observer observer) {
+        delegate.unsubscribe(observer);
+    }
+
+    @Override
+    public void notifyObservers() {
+        publish(NO_PAYLOAD);
+    }
+
+    // returns the journal offset of the recorded notification
+    public long publish(byte[] payload) {
+        long offset = journal.append(payload);
+        delegate.notifyObservers();
+        return offset;
+    }
+
+    public JournalCursor cursorFromStart() {
+        return new JournalCursor(journal, journal.firstOffset());
+    }
+
+    public JournalCursor cursorFromNow() {
+        return new JournalCursor(journal, journal.endOffset());
+    }
+}
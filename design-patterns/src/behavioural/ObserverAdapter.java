@@ -0,0 +1,58 @@
+package behavioural;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Lets a plain {@link Observer}, such as {@link Subscriber}, listen to an {@link EventSubject}.
+ * <p>
+ * Payloads are ignored. A coalescing adapter calls {@link Observer#notified()} once per
+ * batch, a per-event adapter once per event, which matches what the observer saw from
+ * {@link YoutubeChannel}. {@link #forwarding(Subject)} turns every batch into one
+ * {@link Subject#notifyObservers()}, so an existing channel can sit behind a batching one.
+ */
+public class ObserverAdapter<E> implements EventObserver<E> {
+    private final Observer observer;
+    private final boolean perEvent;
+    // what equality is decided on: the observer, or the subject a forwarding adapter calls
+    private final Object target;
+
+    private ObserverAdapter(Observer observer, boolean perEvent, Object target) {
+        this.observer = Objects.requireNonNull(observer);
+        this.perEvent = perEvent;
+        this.target = target;
+    }
+
+    public static <E> ObserverAdapter<E> coalescing(Observer observer) {
+        return new ObserverAdapter<>(observer, false, observer);
+    }
+
+    public static <E> ObserverAdapter<E> perEvent(Observer observer) {
+        return new ObserverAdapter<>(observer, true, observer);
+    }
+
+    public static <E> ObserverAdapter<E> forwarding(Subject subject) {
+        // every subject::notifyObservers is a new object, so equality goes by the subject
+        return new ObserverAdapter<>(subject::notifyObservers, false, Objects.requireNonNull(subject));
+    }
+
+    @Override
+    public void onBatch(List<? extends E> events) {
+        int calls = perEvent ? events.size() : 1;
+        for (int i = 0; i < calls; i++) {
+            observer.notified();
+        }
+    }
+
+    // equal adapters over the same observer, or forwarding to the same subject, can be used to unsubscribe
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ObserverAdapter<?> that
+                && perEvent == that.perEvent && target.equals(that.target);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * target.hashCode() + Boolean.hashCode(perEvent);
+    }
+}
@@ -0,0 +1,13 @@
+package behavioural;
+
+/**
+ * What a bounded mailbox does when a new notification arrives and it is already full.
+ */
+public enum OverflowPolicy {
+    // the publisher waits until the subscriber catches up
+    BLOCK,
+    // the oldest queued notification is discarded to make room
+    DROP_OLDEST,
+    // the incoming notification is discarded
+    DROP_NEWEST
+}
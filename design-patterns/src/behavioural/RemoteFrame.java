@@ -0,0 +1,34 @@
+package behavioural;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Wire format shared by {@link RemoteObserverServer} and {@link RemoteSubscriberClient}.
+ * <pre>
+ *   short payloadLength | byte type | long sequence | payload
+ * </pre>
+ * All values are big-endian. The sequence counts notifications per connection, so a
+ * client can tell when frames were dropped for it.
+ */
+final class RemoteFrame {
+    static final int HEADER = Short.BYTES + Byte.BYTES + Long.BYTES;
+    static final byte NOTIFY = 1;
+    static final int MAX_PAYLOAD = 0xFFFF;
+
+    private RemoteFrame() {
+    }
+
+    static ByteBuffer encode(byte type, long sequence, byte[] payload) {
+        if (payload.length > MAX_PAYLOAD) {
+            throw new IllegalArgumentException("Payload of " + payload.length + " bytes does not fit in a frame");
+        }
+        ByteBuffer frame = ByteBuffer.allocate(HEADER + payload.length);
+        frame.putShort((short) payload.length).put(type).putLong(sequence).put(payload);
+        return frame.flip();
+    }
+
+    // length of the payload of the frame starting at the buffer's position
+    static int payloadLength(ByteBuffer buffer) {
+        return Short.toUnsignedInt(buffer.getShort(buffer.position()));
+    }
+}
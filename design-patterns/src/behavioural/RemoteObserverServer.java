@@ -0,0 +1,253 @@
+package behavioural;
+
+import logging.Log;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans a {@link Subject}'s notifications out to other processes on the same host.
+ * <p>
+ * The server listens on a Unix domain socket. Every accepted connection becomes a
+ * remote {@link Observer} registered through {@link Subject#subscribe(Observer)}, so the
+ * subject treats it like any local subscriber. Notifying a remote observer only queues
+ * a {@link RemoteFrame}; a single selector thread writes the queued frames of each
+ * connection with one gathering {@code write(ByteBuffer[])} and can serve hundreds of
+ * connections. A client that falls more than {@code maxPendingFrames} behind loses the
+ * newest frames, visible to it as a gap in the sequence numbers. Disconnected clients
+ * are unsubscribed, and an I/O error on one connection only closes that connection.
+ * <p>
+ * {@link #start(Subject, Path, int)} binds the socket and starts the selector thread.
+ */
+public class RemoteObserverServer implements Runnable, AutoCloseable {
+    private static final int MAX_GATHER = 64;
+    private static final byte[] NO_PAYLOAD = new byte[0];
+
+    private final Subject subject;
+    private final Path socketPath;
+    private final int maxPendingFrames;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    // connections with newly queued frames, handed from notifying threads to the selector thread
+    private final Queue<RemoteObserver> dirty = new ConcurrentLinkedQueue<>();
+
+    private RemoteObserverServer(Subject subject, Path socketPath, int maxPendingFrames) throws IOException {
+        this.subject = subject;
+        this.socketPath = socketPath;
+        this.maxPendingFrames = maxPendingFrames;
+        Files.deleteIfExists(socketPath);
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socketPath));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public static RemoteObserverServer start(Subject subject, Path socketPath, int maxPendingFrames) throws IOException {
+        RemoteObserverServer remoteServer = new RemoteObserverServer(subject, socketPath, maxPendingFrames);
+        Thread selectorThread = new Thread(remoteServer, "remote-observer-server");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        return remoteServer;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (selector.isOpen()) {
+                try {
+                    selector.select();
+                } catch (IOException e) {
+                    // the selector itself is broken, so no connection can be served any more
+                    Log.warn("Remote observer server on {} stopped: {}", socketPath, e);
+                    closeQuietly();
+                    return;
+                }
+                RemoteObserver remote;
+                while ((remote = dirty.poll()) != null) {
+                    remote.enableWrites();
+                }
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        RemoteObserver connection = (RemoteObserver) key.attachment();
+                        if (key.isReadable()) {
+                            connection.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.write();
+                        }
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (ClosedSelectorException e) {
+            // closed while selecting
+        }
+    }
+
+    public int connectionCount() {
+        return (int) selector.keys().stream().filter(key -> key.attachment() != null && key.isValid()).count();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof RemoteObserver remote) {
+                remote.disconnect();
+            }
+        }
+        selector.close();
+        server.close();
+        Files.deleteIfExists(socketPath);
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException ignored) {
+            // best effort, the server is already unusable
+        }
+    }
+
+    // a failed accept loses only the connection being accepted
+    private void accept() {
+        SocketChannel channel = null;
+        try {
+            channel = server.accept();
+            if (channel == null) {
+                return;
+            }
+            channel.configureBlocking(false);
+            RemoteObserver remote = new RemoteObserver(channel);
+            remote.key = channel.register(selector, SelectionKey.OP_READ, remote);
+            subject.subscribe(remote);
+        } catch (IOException e) {
+            Log.warn("Failed to accept a remote observer on {}: {}", socketPath, e);
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // already going away
+                }
+            }
+        }
+    }
+
+    private class RemoteObserver implements Observer {
+        private final SocketChannel channel;
+        private final Queue<ByteBuffer> queued = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queuedCount = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // selector-thread state
+        private final ArrayDeque<ByteBuffer> writing = new ArrayDeque<>();
+        private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(64);
+        private SelectionKey key;
+        private long sequence;
+
+        RemoteObserver(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void notified() {
+            long next;
+            synchronized (this) {
+                next = ++sequence;
+            }
+            if (queuedCount.incrementAndGet() > maxPendingFrames) {
+                queuedCount.decrementAndGet();
+                return;
+            }
+            queued.add(RemoteFrame.encode(RemoteFrame.NOTIFY, next, NO_PAYLOAD));
+            // only the first frame since the last flush needs to wake the selector
+            if (scheduled.compareAndSet(false, true)) {
+                dirty.add(this);
+                selector.wakeup();
+            }
+        }
+
+        void enableWrites() {
+            if (key.isValid()) {
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+            }
+        }
+
+        void write() {
+            scheduled.set(false);
+            ByteBuffer frame;
+            while ((frame = queued.poll()) != null) {
+                writing.add(frame);
+            }
+            try {
+                while (!writing.isEmpty()) {
+                    int count = 0;
+                    for (ByteBuffer buffer : writing) {
+                        gather[count++] = buffer;
+                        if (count == MAX_GATHER) {
+                            break;
+                        }
+                    }
+                    channel.write(gather, 0, count);
+                    int written = 0;
+                    while (!writing.isEmpty() && !writing.peekFirst().hasRemaining()) {
+                        writing.pollFirst();
+                        written++;
+                    }
+                    queuedCount.addAndGet(-written);
+                    if (written < count) {
+                        // socket buffer is full, wait for the next OP_WRITE
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                disconnect();
+                return;
+            }
+            if (writing.isEmpty() && queued.isEmpty() && key.isValid()) {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+
+        // clients never send anything, a read only tells us they went away
+        void read() {
+            try {
+                readBuffer.clear();
+                if (channel.read(readBuffer) < 0) {
+                    disconnect();
+                }
+            } catch (IOException e) {
+                disconnect();
+            }
+        }
+
+        void disconnect() {
+            subject.unsubscribe(this);
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // already going away
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package behavioural;
+
+import logging.Log;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+/**
+ * Receiving end of a {@link RemoteObserverServer} connection.
+ * <p>
+ * A background thread reads frames from the socket and calls the local
+ * {@link Observer} once per notification, so the observer cannot tell whether its
+ * subject lives in this JVM or another one on the same host.
+ * <p>
+ * {@link #connect(Path, Observer)} opens the connection and starts the reader thread.
+ * A read error is logged and closes the connection, as the server does for its side.
+ */
+public class RemoteSubscriberClient implements Runnable, AutoCloseable {
+    private final SocketChannel channel;
+    private final Observer observer;
+    // room for one whole frame of the largest size, or a partial one could never complete
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(RemoteFrame.HEADER + RemoteFrame.MAX_PAYLOAD);
+    private final Path socketPath;
+    private volatile long lastSequence;
+
+    private RemoteSubscriberClient(SocketChannel channel, Path socketPath, Observer observer) {
+        this.channel = channel;
+        this.socketPath = socketPath;
+        this.observer = observer;
+    }
+
+    public static RemoteSubscriberClient connect(Path socketPath, Observer observer) throws IOException {
+        SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            channel.connect(UnixDomainSocketAddress.of(socketPath));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        RemoteSubscriberClient client = new RemoteSubscriberClient(channel, socketPath, observer);
+        Thread readerThread = new Thread(client, "remote-subscriber-" + socketPath.getFileName());
+        readerThread.setDaemon(true);
+        readerThread.start();
+        return client;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                while (buffer.remaining() >= RemoteFrame.HEADER
+                        && buffer.remaining() >= RemoteFrame.HEADER + RemoteFrame.payloadLength(buffer)) {
+                    int payloadLength = RemoteFrame.payloadLength(buffer);
+                    buffer.getShort();
+                    byte type = buffer.get();
+                    lastSequence = buffer.getLong();
+                    buffer.position(buffer.position() + payloadLength);
+                    if (type == RemoteFrame.NOTIFY) {
+                        observer.notified();
+                    }
+                }
+                // keep a partial frame for the next read
+                buffer.compact();
+            }
+        } catch (AsynchronousCloseException e) {
+            // closed by close()
+        } catch (IOException e) {
+            Log.warn("Remote subscriber on {} stopped: {}", socketPath, e);
+            closeQuietly();
+        }
+    }
+
+    // sequence number of the last frame received; gaps mean the server dropped frames for us
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException ignored) {
+            // best effort, the connection is already unusable
+        }
+    }
+}
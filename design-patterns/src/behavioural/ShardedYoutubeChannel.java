@@ -0,0 +1,217 @@
+package behavioural;
+
+import logging.Log;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link Subject} for very large subscriber sets.
+ * <p>
+ * Subscribers are spread over a fixed number of stripes. Below {@code parallelThreshold}
+ * subscribers the stripes are notified one after another on the caller's thread; above
+ * it every stripe becomes a task on the executor and {@link #notifyObservers()} returns
+ * once all of them are done.
+ * <p>
+ * A stripe keeps its observers in a growable array and publishes an immutable view of
+ * it, the array and how many slots are live. Subscribing writes the next free slot and
+ * publishes a new view, so it costs O(1) however many observers the stripe already has.
+ * Unsubscribing copies the stripe's array, as it has to find the observer anyway.
+ * <p>
+ * Within a stripe observers are notified in subscription order, and a stripe never
+ * starts the next notification before finishing the current one: each call queues a
+ * request on every stripe, and only the thread that wins a stripe's draining flag runs
+ * that stripe's requests, one full round per request. There is no order between
+ * stripes, so observers that must see each other's side effects in order belong in a
+ * single-stripe channel. A notification triggered from inside an observer is queued
+ * behind the current one and the call returns without waiting for it.
+ */
+public class ShardedYoutubeChannel implements Subject {
+    private final Stripe[] stripes;
+    private final int parallelThreshold;
+    private final Executor executor;
+
+    public ShardedYoutubeChannel() {
+        this(Runtime.getRuntime().availableProcessors() * 4, 10_000, ForkJoinPool.commonPool());
+    }
+
+    public ShardedYoutubeChannel(int stripeCount, int parallelThreshold, Executor executor) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Stripe count must be positive: " + stripeCount);
+        }
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.parallelThreshold = parallelThreshold;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Observer observer) {
+        stripeFor(observer).subscribe(observer);
+    }
+
+    @Override
+    public void unsubscribe(Observer observer) {
+        stripeFor(observer).unsubscribe(observer);
+    }
+
+    @Override
+    public void notifyObservers() {
+        boolean nested = isDrainingOnThisThread();
+        boolean parallel = subscriberCount() >= parallelThreshold;
+        CompletableFuture<?>[] requests = new CompletableFuture<?>[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[i];
+            requests[i] = stripe.request();
+            if (parallel) {
+                try {
+                    executor.execute(stripe::drain);
+                } catch (RejectedExecutionException e) {
+                    stripe.drain();
+                }
+            } else {
+                stripe.drain();
+            }
+        }
+        if (nested) {
+            // the stripe this thread is draining only reaches our request after the current
+            // round, so waiting here could deadlock
+            for (CompletableFuture<?> request : requests) {
+                request.whenComplete((ignored, e) -> {
+                    if (e != null) {
+                        Log.warn("Nested notification failed: {}", e);
+                    }
+                });
+            }
+            return;
+        }
+        try {
+            CompletableFuture.allOf(requests).join();
+        } catch (CompletionException e) {
+            // surface an observer's exception as if it had been thrown sequentially
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public int subscriberCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            count += stripe.size();
+        }
+        return count;
+    }
+
+    private boolean isDrainingOnThisThread() {
+        Thread current = Thread.currentThread();
+        for (Stripe stripe : stripes) {
+            if (stripe.drainer == current) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // hashCode rather than identity, so unsubscribe finds observers that are only equal
+    private Stripe stripeFor(Observer observer) {
+        int hash = observer.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[Math.floorMod(hash, stripes.length)];
+    }
+
+    // observers[0 .. size) are live; slots past size may be filled by later subscribes
+    private record View(Observer[] observers, int size) {
+        static final View EMPTY = new View(new Observer[0], 0);
+    }
+
+    private static final class Stripe {
+        private static final int INITIAL_CAPACITY = 16;
+
+        // a given array only ever grows in place, so a view never sees its slots change;
+        // unsubscribe switches to a fresh array
+        private volatile View view = View.EMPTY;
+        private final ConcurrentLinkedQueue<CompletableFuture<Void>> requests = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // the thread holding draining, if any
+        private volatile Thread drainer;
+
+        synchronized void subscribe(Observer observer) {
+            View current = view;
+            Observer[] observers = current.observers();
+            if (current.size() == observers.length) {
+                observers = Arrays.copyOf(observers, Math.max(INITIAL_CAPACITY, observers.length * 2));
+            }
+            observers[current.size()] = observer;
+            view = new View(observers, current.size() + 1);
+        }
+
+        // same first-match semantics as ArrayList.remove(Object)
+        synchronized void unsubscribe(Observer observer) {
+            View current = view;
+            Observer[] observers = current.observers();
+            for (int i = 0; i < current.size(); i++) {
+                if (Objects.equals(observers[i], observer)) {
+                    Observer[] next = new Observer[observers.length];
+                    System.arraycopy(observers, 0, next, 0, i);
+                    System.arraycopy(observers, i + 1, next, i, current.size() - i - 1);
+                    view = new View(next, current.size() - 1);
+                    return;
+                }
+            }
+        }
+
+        int size() {
+            return view.size();
+        }
+
+        CompletableFuture<Void> request() {
+            CompletableFuture<Void> request = new CompletableFuture<>();
+            requests.add(request);
+            return request;
+        }
+
+        // runs queued requests one round at a time; a thread that finds the stripe already
+        // draining leaves its request to the drainer, which re-checks the queue before leaving
+        void drain() {
+            while (!requests.isEmpty() && draining.compareAndSet(false, true)) {
+                drainer = Thread.currentThread();
+                try {
+                    for (CompletableFuture<Void> request = requests.poll(); request != null; request = requests.poll()) {
+                        try {
+                            notifyRound();
+                            request.complete(null);
+                        } catch (Throwable e) {
+                            // the failure belongs to this request; the ones queued behind it still run
+                            request.completeExceptionally(e);
+                        }
+                    }
+                } finally {
+                    drainer = null;
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void notifyRound() {
+            View current = view;
+            Observer[] observers = current.observers();
+            for (int i = 0, size = current.size(); i < size; i++) {
+                observers[i].notified();
+            }
+        }
+    }
+}
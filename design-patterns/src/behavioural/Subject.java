@@ -6,4 +6,10 @@ public interface Subject {
     void unsubscribe(Observer observer);
 
     void notifyObservers();
+
+    // subjects that can cancel a single registration cheaply override this
+    default Subscription register(Observer observer) {
+        subscribe(observer);
+        return () -> unsubscribe(observer);
+    }
 }
@@ -1,5 +1,7 @@
 package behavioural;
 
+import logging.Log;
+
 public class Subscriber implements Observer {
     String name;
 
@@ -9,6 +11,6 @@ public class Subscriber implements Observer {
 
     @Override
     public void notified() {
-        System.out.println("Subscriber notified" + name);
+        Log.info("Subscriber notified{}", name);
     }
 }
@@ -0,0 +1,9 @@
+package behavioural;
+
+/**
+ * Handle returned by {@link Subject#register(Observer)}.
+ * Cancelling it removes exactly the registration it was returned for.
+ */
+public interface Subscription {
+    void cancel();
+}
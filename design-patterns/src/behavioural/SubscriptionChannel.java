@@ -0,0 +1,136 @@
+package behavioural;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * {@link Subject} built for heavy subscriber churn.
+ * <p>
+ * Registrations live in a dense array and every {@link Subscription} remembers its
+ * slot. Cancelling moves the last registration into the freed slot, so
+ * {@link Subscription#cancel()} is O(1) instead of the scan and shift that
+ * {@code ArrayList.remove(Object)} costs. The price is that notification order is
+ * not registration order. {@link #unsubscribe(Observer)} still has to find the
+ * observer first, so it stays linear; keep the handle when churn matters.
+ * <p>
+ * {@link #notifyObservers()} iterates an immutable snapshot of the registrations. The
+ * snapshot is published once after a run of registrations and cancellations and reused
+ * by every notification until the next change, so a burst of churn costs one copy and a
+ * steady channel notifies without allocating.
+ * <p>
+ * {@link #registerWeak(Observer)} holds the observer through a {@link WeakReference}.
+ * Once the observer is garbage collected its registration is purged during the next
+ * notification, so forgetting to unsubscribe no longer leaks it.
+ */
+public class SubscriptionChannel implements Subject {
+    private Entry[] entries = new Entry[16];
+    private int size;
+    // entries[0 .. size) as of the last change, or null until a notification rebuilds it
+    private volatile Entry[] snapshot = new Entry[0];
+
+    @Override
+    public void subscribe(Observer observer) {
+        register(observer);
+    }
+
+    @Override
+    public void unsubscribe(Observer observer) {
+        synchronized (this) {
+            for (int i = 0; i < size; i++) {
+                if (Objects.equals(entries[i].observer(), observer)) {
+                    removeAt(i);
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public Subscription register(Observer observer) {
+        return add(new Entry(this, Objects.requireNonNull(observer), null));
+    }
+
+    public Subscription registerWeak(Observer observer) {
+        return add(new Entry(this, null, new WeakReference<>(Objects.requireNonNull(observer))));
+    }
+
+    @Override
+    public void notifyObservers() {
+        // observers run outside the lock so they may cancel or register freely
+        for (Entry entry : snapshot()) {
+            Observer observer = entry.observer();
+            if (observer != null) {
+                observer.notified();
+            } else {
+                entry.cancel();
+            }
+        }
+    }
+
+    public synchronized int subscriberCount() {
+        return size;
+    }
+
+    private Entry[] snapshot() {
+        Entry[] current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = Arrays.copyOf(entries, size);
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private synchronized Entry add(Entry entry) {
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        entry.index = size;
+        entries[size++] = entry;
+        snapshot = null;
+        return entry;
+    }
+
+    // caller holds the lock
+    private void removeAt(int index) {
+        Entry removed = entries[index];
+        Entry last = entries[--size];
+        entries[index] = last;
+        last.index = index;
+        entries[size] = null;
+        removed.index = -1;
+        snapshot = null;
+    }
+
+    private static class Entry implements Subscription {
+        private final SubscriptionChannel channel;
+        private final Observer strong;
+        private final WeakReference<Observer> weak;
+        // slot in channel.entries, -1 once cancelled; guarded by the channel lock
+        private int index;
+
+        Entry(SubscriptionChannel channel, Observer strong, WeakReference<Observer> weak) {
+            this.channel = channel;
+            this.strong = strong;
+            this.weak = weak;
+        }
+
+        Observer observer() {
+            return strong != null ? strong : weak.get();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (channel) {
+                if (index >= 0) {
+                    channel.removeAt(index);
+                }
+            }
+        }
+    }
+}
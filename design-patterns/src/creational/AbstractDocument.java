@@ -0,0 +1,33 @@
+package creational;
+
+import creational.io.DocumentSerializer;
+import creational.io.StoredDocument;
+
+// Base for documents that are stored on disk and that a DocumentPool can recycle
+abstract class AbstractDocument extends StoredDocument implements Document {
+    // the pool this document goes back to on close, null when it is not pooled
+    DocumentPool pool;
+    // lease state the pool tracks weakly, null when it is not pooled
+    DocumentPool.Tracker tracker;
+
+    protected AbstractDocument(DocumentSerializer serializer) {
+        super(serializer);
+    }
+
+    @Override
+    public final void close() {
+        onClose();
+        unload();
+        if (pool != null) {
+            reset();
+            pool.release(this);
+        }
+    }
+
+    protected abstract void onClose();
+
+    // clears per-use state before the document is leased again
+    protected void reset() {
+        clear();
+    }
+}
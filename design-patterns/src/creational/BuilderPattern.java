@@ -1,6 +1,5 @@
 package creational;
 
-import java.io.Serializable;
 import java.util.List;
 
 /**
@@ -40,70 +39,3 @@ public class BuilderPattern {
         System.out.println("Product Description: " + mobile.getDescription());
     }
 }
-
-class Product implements Serializable {
-    private String name;
-    private double price;
-    private List<String> features;
-    private String description;
-
-    //private constructor for builder
-    private Product(String name, double price, List<String> features,String description) {
-        this.name = name;
-        this.price = price;
-        this.features = features;
-        this.description = description;
-    }
-
-    public String getName() {
-        return name;
-    }
-
-    public double getPrice() {
-        return price;
-    }
-
-    public List<String> getFeatures() {
-        return features;
-    }
-
-    public String getDescription() {
-        return description;
-    }
-
-    public static Builder newBuilder() {
-        return new Builder();
-    }
-
-    //builder class
-    public static class Builder {
-        private String name;
-        private double price;
-        private List<String> features;
-        private String description;
-
-        public Builder setName(String name) {
-            this.name = name;
-            return this;
-        }
-
-        public Builder setPrice(double price) {
-            this.price = price;
-            return this;
-        }
-
-        public Builder setFeatures(List<String> features) {
-            this.features = features;
-            return this;
-        }
-
-        public Builder setDescription(String description) {
-            this.description = description;
-            return this;
-        }
-
-        public Product build() {
-            return new Product(name, price, features,description);
-        }
-    }
-}
@@ -0,0 +1,297 @@
+package creational;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded object pool for connections.
+ * <p>
+ * Idle connections sit in a lock-free deque and are handed out most recently used first.
+ * A fair {@link Semaphore} with {@code maxSize} permits bounds how many can be leased at
+ * once, so waiting callers are served in arrival order and give up after their timeout.
+ * Connections are created lazily up to {@code maxSize}, validated before every lease,
+ * and a background task closes connections that stayed idle longer than
+ * {@code idleTimeout} while keeping at least {@code minSize} of them around.
+ * <p>
+ * Usage:
+ * <pre>
+ *   try (ConnectionPool.Lease&lt;Connection&gt; lease = pool.borrow(1, TimeUnit.SECONDS)) {
+ *       lease.get().execute(...);
+ *   }
+ * </pre>
+ */
+public class ConnectionPool<C> implements AutoCloseable {
+    private final Supplier<? extends C> factory;
+    private final Predicate<? super C> validator;
+    private final Consumer<? super C> destroyer;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutNanos;
+
+    private final ConcurrentLinkedDeque<Entry<C>> idle = new ConcurrentLinkedDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder leaseNanos = new LongAdder();
+    private final LongAccumulator maxLeaseNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder timeouts = new LongAdder();
+
+    private ConnectionPool(Builder<C> builder) {
+        this.factory = Objects.requireNonNull(builder.factory, "factory");
+        this.validator = builder.validator;
+        this.destroyer = builder.destroyer;
+        this.minSize = builder.minSize;
+        this.maxSize = builder.maxSize;
+        this.idleTimeoutNanos = builder.idleTimeout.toNanos();
+        this.permits = new Semaphore(maxSize, true);
+        for (int i = 0; i < minSize; i++) {
+            total.incrementAndGet();
+            release(new Entry<>(factory.get()));
+        }
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = builder.evictionInterval.toNanos();
+        evictor.scheduleWithFixedDelay(this::evictIdle, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    public static <C> Builder<C> newBuilder(Supplier<? extends C> factory) {
+        return new Builder<C>().setFactory(factory);
+    }
+
+    public Lease<C> borrow(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        if (closed) {
+            throw new IllegalStateException("Pool is closed.");
+        }
+        long start = System.nanoTime();
+        if (!permits.tryAcquire(timeout, unit)) {
+            timeouts.increment();
+            throw new TimeoutException("No connection available within " + timeout + " " + unit);
+        }
+        if (closed) {
+            // closed while this caller was waiting; the permit came from a destroyed connection
+            permits.release();
+            throw new IllegalStateException("Pool is closed.");
+        }
+        long waited = System.nanoTime() - start;
+        waitNanos.add(waited);
+        maxWaitNanos.accumulate(waited);
+        try {
+            Entry<C> entry = acquire();
+            leases.increment();
+            return new Lease<>(this, entry);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public Metrics metrics() {
+        long leaseCount = leases.sum();
+        return new Metrics(maxSize - permits.availablePermits(), idleCount.get(), total.get(), leaseCount,
+                timeouts.sum(), leaseCount == 0 ? 0 : waitNanos.sum() / leaseCount, maxWaitNanos.get(),
+                leaseCount == 0 ? 0 : leaseNanos.sum() / leaseCount, maxLeaseNanos.get());
+    }
+
+    // leased connections are closed when they are returned
+    @Override
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        Entry<C> entry;
+        while ((entry = idle.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            destroy(entry);
+        }
+    }
+
+    // caller holds a permit, so either an idle connection exists or there is room to create one
+    private Entry<C> acquire() {
+        while (true) {
+            Entry<C> entry = idle.pollFirst();
+            if (entry != null) {
+                idleCount.decrementAndGet();
+                boolean valid;
+                try {
+                    valid = validator.test(entry.connection);
+                } catch (RuntimeException e) {
+                    // a validator that cannot tell is treated as a failed check, or the slot leaks
+                    destroy(entry);
+                    throw e;
+                }
+                if (valid) {
+                    return entry;
+                }
+                destroy(entry);
+                continue;
+            }
+            if (total.incrementAndGet() <= maxSize) {
+                try {
+                    return new Entry<>(factory.get());
+                } catch (RuntimeException e) {
+                    total.decrementAndGet();
+                    throw e;
+                }
+            }
+            // another thread is returning a connection right now
+            total.decrementAndGet();
+            Thread.onSpinWait();
+        }
+    }
+
+    private void giveBack(Entry<C> entry, long leasedAt) {
+        long held = System.nanoTime() - leasedAt;
+        leaseNanos.add(held);
+        maxLeaseNanos.accumulate(held);
+        if (closed) {
+            destroy(entry);
+        } else {
+            release(entry);
+        }
+        permits.release();
+    }
+
+    private void release(Entry<C> entry) {
+        entry.idleSince = System.nanoTime();
+        idle.offerFirst(entry);
+        idleCount.incrementAndGet();
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        // the least recently used connections are at the tail
+        for (Iterator<Entry<C>> tail = idle.descendingIterator(); tail.hasNext(); ) {
+            Entry<C> entry = tail.next();
+            if (total.get() <= minSize || now - entry.idleSince < idleTimeoutNanos) {
+                break;
+            }
+            if (idle.removeLastOccurrence(entry)) {
+                idleCount.decrementAndGet();
+                destroy(entry);
+            }
+        }
+    }
+
+    private void destroy(Entry<C> entry) {
+        total.decrementAndGet();
+        destroyer.accept(entry.connection);
+    }
+
+    private static class Entry<C> {
+        private final C connection;
+        private long idleSince;
+
+        Entry(C connection) {
+            this.connection = connection;
+        }
+    }
+
+    /**
+     * A leased connection. Closing the lease returns the connection to the pool; it must
+     * not be used afterwards.
+     */
+    public static class Lease<C> implements AutoCloseable {
+        private final ConnectionPool<C> pool;
+        private final long leasedAt = System.nanoTime();
+        private Entry<C> entry;
+
+        private Lease(ConnectionPool<C> pool, Entry<C> entry) {
+            this.pool = pool;
+            this.entry = entry;
+        }
+
+        public C get() {
+            if (entry == null) {
+                throw new IllegalStateException("Lease already returned.");
+            }
+            return entry.connection;
+        }
+
+        @Override
+        public void close() {
+            if (entry != null) {
+                Entry<C> returned = entry;
+                entry = null;
+                pool.giveBack(returned, leasedAt);
+            }
+        }
+    }
+
+    public record Metrics(int active, int idle, int total, long leases, long timeouts, long averageWaitNanos,
+                          long maxWaitNanos, long averageLeaseNanos, long maxLeaseNanos) {
+    }
+
+    public static class Builder<C> {
+        private Supplier<? extends C> factory;
+        private Predicate<? super C> validator = connection -> true;
+        private Consumer<? super C> destroyer = connection -> { };
+        private int minSize = 0;
+        private int maxSize = 10;
+        private Duration idleTimeout = Duration.ofMinutes(5);
+        private Duration evictionInterval = Duration.ofSeconds(30);
+
+        public Builder<C> setFactory(Supplier<? extends C> factory) {
+            this.factory = factory;
+            return this;
+        }
+
+        public Builder<C> setValidator(Predicate<? super C> validator) {
+            this.validator = validator;
+            return this;
+        }
+
+        public Builder<C> setDestroyer(Consumer<? super C> destroyer) {
+            this.destroyer = destroyer;
+            return this;
+        }
+
+        public Builder<C> setMinSize(int minSize) {
+            this.minSize = minSize;
+            return this;
+        }
+
+        public Builder<C> setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        public Builder<C> setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        public Builder<C> setEvictionInterval(Duration evictionInterval) {
+            this.evictionInterval = evictionInterval;
+            return this;
+        }
+
+        public ConnectionPool<C> build() {
+            if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+                throw new IllegalArgumentException("Invalid pool bounds: min " + minSize + ", max " + maxSize);
+            }
+            return new ConnectionPool<>(this);
+        }
+    }
+}
+
@@ -0,0 +1,10 @@
+package creational;
+
+// Product interface
+public interface Document {
+    void open();
+
+    void save();
+
+    void close();
+}
@@ -0,0 +1,45 @@
+package creational;
+
+/**
+ * Creator of one document type. Public so that {@link DocumentFactoryProvider}s outside
+ * this package can supply their own; pooling stays an internal detail.
+ */
+public abstract class DocumentFactory {
+    // opt-in: when set, newDocument() leases recycled documents instead of creating them
+    private volatile DocumentPool pool;
+
+    protected DocumentFactory() {
+    }
+
+    public abstract Document createDocument();
+
+    public void newDocument() {
+        DocumentPool current = pool;
+        Document document = current != null ? current.acquire() : createDocument();
+        document.open();
+        document.save();
+        document.close();
+    }
+
+    synchronized DocumentPool enablePooling() {
+        if (pool == null) {
+            pool = new DocumentPool(() -> {
+                if (createDocument() instanceof AbstractDocument document) {
+                    return document;
+                }
+                throw new UnsupportedOperationException(getClass().getSimpleName()
+                        + " creates documents that cannot be recycled.");
+            });
+        }
+        return pool;
+    }
+
+    DocumentPool pool() {
+        return pool;
+    }
+
+    // case-insensitive and ignores surrounding whitespace; null for unknown types
+    public static DocumentFactory getFactory(String type) {
+        return DocumentFactoryRegistry.lookup(type);
+    }
+}
@@ -0,0 +1,18 @@
+package creational;
+
+/**
+ * Service provider interface for plugging extra document types into
+ * {@link DocumentFactory#getFactory(String)}.
+ * <p>
+ * Implementations are found with {@link java.util.ServiceLoader}: list the class in
+ * {@code META-INF/services/creational.DocumentFactoryProvider}; providers may live in
+ * any package. Each provider is asked for its factory once, when the registry is built,
+ * and a type that is already registered, built-in or not, fails the build of the
+ * registry.
+ */
+public interface DocumentFactoryProvider {
+    // the type name clients ask for, matched case-insensitively
+    String type();
+
+    DocumentFactory createFactory();
+}
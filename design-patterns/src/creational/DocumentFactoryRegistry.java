@@ -0,0 +1,89 @@
+package creational;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of shared {@link DocumentFactory} instances.
+ * <p>
+ * Factories are stateless, so each one is created once: the built-in types first, then
+ * whatever {@link DocumentFactoryProvider}s {@link ServiceLoader} finds listed in
+ * {@code META-INF/services}, which is a prebuilt index and needs no classpath scan. The
+ * result is frozen into an open-addressing table hashed on lower-cased characters, so a
+ * lookup compares the caller's string in place and allocates nothing, instead of the
+ * {@code trim().toLowerCase()} copy per call. With instrumentation enabled, the table
+ * holds {@link InstrumentedDocumentFactory} decorators.
+ */
+final class DocumentFactoryRegistry {
+    private static final DocumentFactoryRegistry shared =
+            new DocumentFactoryRegistry(ServiceLoader.load(DocumentFactoryProvider.class));
+
+    private final String[] keys;
+    private final DocumentFactory[] factories;
+    private final int mask;
+
+    // the built-in types plus the given providers; a type seen twice is an error
+    DocumentFactoryRegistry(Iterable<? extends DocumentFactoryProvider> providers) {
+        List<String> types = new ArrayList<>(List.of("word", "excel", "pdf"));
+        List<DocumentFactory> instances = new ArrayList<>(List.of(
+                new WordDocumentFactory(), new ExcelDocumentFactory(), new PDFDocumentFactory()));
+        for (DocumentFactoryProvider provider : providers) {
+            String type = provider.type().trim().toLowerCase(Locale.ROOT);
+            if (types.contains(type)) {
+                throw new IllegalStateException("Document type registered twice: " + type);
+            }
+            types.add(type);
+            instances.add(provider.createFactory());
+        }
+
+        int capacity = Integer.highestOneBit(types.size() * 4 - 1) << 1;
+        keys = new String[capacity];
+        factories = new DocumentFactory[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < types.size(); i++) {
+            String type = types.get(i);
+            int slot = hash(type, 0, type.length()) & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = type;
+            factories[slot] = InstrumentedDocumentFactory.wrap(instances.get(i));
+        }
+    }
+
+    static DocumentFactory lookup(String type) {
+        return shared.find(type);
+    }
+
+    DocumentFactory find(String type) {
+        if (type == null) {
+            return null;
+        }
+        int start = 0;
+        int end = type.length();
+        while (start < end && Character.isWhitespace(type.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(type.charAt(end - 1))) {
+            end--;
+        }
+        int length = end - start;
+        for (int slot = hash(type, start, end) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+            String key = keys[slot];
+            if (key.length() == length && key.regionMatches(true, 0, type, start, length)) {
+                return factories[slot];
+            }
+        }
+        return null;
+    }
+
+    private static int hash(String text, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + Character.toLowerCase(text.charAt(i));
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
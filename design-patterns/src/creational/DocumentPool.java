@@ -0,0 +1,131 @@
+package creational;
+
+import java.lang.ref.Cleaner;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Recycles the {@link AbstractDocument}s of one document type.
+ * <p>
+ * {@link #acquire()} first tries a small per-thread cache, then the shared queue, and only
+ * creates a document when both are empty. {@link AbstractDocument#close()} resets the
+ * document and hands it back, to the closing thread's cache while it has room. A steady
+ * open/save/close loop therefore allocates no documents at all.
+ * <p>
+ * Each document the pool creates gets a {@link Tracker}, a weak reference holding its
+ * lease time, so {@link #leakedSince(Duration)} can list the ones that were leased long
+ * ago and never closed. The pool never holds a leased document strongly: a leaked
+ * document can still be collected, and a {@link Cleaner} then drops its tracker and
+ * counts it in {@link #collectedWhileLeased()}.
+ */
+class DocumentPool {
+    private static final int THREAD_CACHE_SIZE = 8;
+    // one daemon thread for every pool; the actions only touch a set and a counter
+    private static final Cleaner cleaner = Cleaner.create();
+
+    private final Supplier<AbstractDocument> creator;
+    private final Queue<AbstractDocument> shared = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<ArrayDeque<AbstractDocument>> threadCache =
+            ThreadLocal.withInitial(() -> new ArrayDeque<>(THREAD_CACHE_SIZE));
+    // trackers of the documents still reachable; grows only when a document is created
+    private final Set<Tracker> trackers = ConcurrentHashMap.newKeySet();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder collectedWhileLeased = new LongAdder();
+
+    DocumentPool(Supplier<AbstractDocument> creator) {
+        this.creator = creator;
+    }
+
+    AbstractDocument acquire() {
+        AbstractDocument document = threadCache.get().pollLast();
+        if (document == null) {
+            document = shared.poll();
+        }
+        if (document == null) {
+            document = create();
+        }
+        document.tracker.leasedAt = System.nanoTime();
+        leases.increment();
+        return document;
+    }
+
+    void release(AbstractDocument document) {
+        Tracker tracker = document.tracker;
+        if (tracker.leasedAt == 0) {
+            throw new IllegalStateException("Document was already closed.");
+        }
+        tracker.leasedAt = 0;
+        ArrayDeque<AbstractDocument> cache = threadCache.get();
+        if (cache.size() < THREAD_CACHE_SIZE) {
+            cache.addLast(document);
+        } else {
+            shared.offer(document);
+        }
+    }
+
+    // documents leased for longer than the given age without being closed
+    List<AbstractDocument> leakedSince(Duration age) {
+        long now = System.nanoTime();
+        List<AbstractDocument> leaked = new ArrayList<>();
+        for (Tracker tracker : trackers) {
+            long leasedAt = tracker.leasedAt;
+            AbstractDocument document = tracker.get();
+            if (document != null && leasedAt != 0 && now - leasedAt > age.toNanos()) {
+                leaked.add(document);
+            }
+        }
+        return leaked;
+    }
+
+    long createdCount() {
+        return created.sum();
+    }
+
+    long leaseCount() {
+        return leases.sum();
+    }
+
+    // leaked documents the garbage collector has reclaimed without them ever being closed
+    long collectedWhileLeased() {
+        return collectedWhileLeased.sum();
+    }
+
+    private AbstractDocument create() {
+        AbstractDocument document = creator.get();
+        Tracker tracker = new Tracker(document);
+        document.pool = this;
+        document.tracker = tracker;
+        trackers.add(tracker);
+        created.increment();
+        // the action holds the tracker, never the document, so it cannot keep the document alive
+        cleaner.register(document, () -> collected(tracker));
+        return document;
+    }
+
+    private void collected(Tracker tracker) {
+        trackers.remove(tracker);
+        if (tracker.leasedAt != 0) {
+            collectedWhileLeased.increment();
+        }
+    }
+
+    // lease state of one pooled document, kept apart so it outlives the document
+    static final class Tracker extends WeakReference<AbstractDocument> {
+        // System.nanoTime() of the current lease, 0 while idle in the pool
+        volatile long leasedAt;
+
+        private Tracker(AbstractDocument document) {
+            super(document);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package creational;
+
+import creational.io.DocumentSerializer;
+import creational.io.ExcelSerializer;
+import logging.Log;
+
+// Concrete product class
+class ExcelDocument extends AbstractDocument {
+    private static final DocumentSerializer format = new ExcelSerializer();
+
+    ExcelDocument() {
+        super(format);
+    }
+
+    @Override
+    public void open() {
+        Log.info("Opening Excel document...");
+        load();
+    }
+
+    @Override
+    public void save() {
+        Log.info("Saving Excel document...");
+        store();
+    }
+
+    @Override
+    protected void onClose() {
+        Log.info("Closing Excel document...");
+    }
+}
@@ -0,0 +1,9 @@
+package creational;
+
+// Concrete creator class
+class ExcelDocumentFactory extends DocumentFactory {
+    @Override
+    public Document createDocument() {
+        return new ExcelDocument();
+    }
+}
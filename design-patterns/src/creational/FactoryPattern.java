@@ -1,5 +1,12 @@
 package creational;
 
+import creational.batch.BatchEntry;
+import creational.batch.DocumentPipeline;
+import creational.io.StoredDocument;
+import logging.Log;
+
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -19,122 +26,17 @@ public class FactoryPattern {
 
 }
 
-// Product interface
-interface Document {
-    void open();
-
-    void save();
-
-    void close();
-}
-
-// Concrete product classes
-class WordDocument implements creational.Document {
-    @Override
-    public void open() {
-        System.out.println("Opening Word document...");
-    }
-
-    @Override
-    public void save() {
-        System.out.println("Saving Word document...");
-    }
-
-    @Override
-    public void close() {
-        System.out.println("Closing Word document...");
-    }
-}
-
-// Concrete product classes
-class ExcelDocument implements creational.Document {
-    @Override
-    public void open() {
-        System.out.println("Opening Excel document...");
-    }
-
-    @Override
-    public void save() {
-        System.out.println("Saving Excel document...");
-    }
-
-
-    @Override
-    public void close() {
-        System.out.println("Closing Excel document...");
-    }
-}
-
-//concrete product classes
-class PDFDocument implements creational.Document {
-    @Override
-    public void open() {
-        System.out.println("Opening PDF document...");
-    }
-
-    @Override
-    public void save() {
-        System.out.println("Saving PDF document...");
-    }
-
-    @Override
-    public void close() {
-        System.out.println("Closing PDF document...");
-    }
-
-}
-
-
-// Creator class or factory class
-abstract class DocumentFactory {
-    public abstract creational.Document createDocument();
-
-    public void newDocument() {
-        creational.Document document = createDocument();
-        document.open();
-        document.save();
-        document.close();
-    }
-
-
-    public static DocumentFactory getFactory(String type) {
-        return switch (type) {
-            case "word" -> new WordDocumentFactory();
-            case "excel" -> new ExcelDocumentFactory();
-            case "pdf" -> new PDFDocumentFactory();
-            default -> null;
-        };
-    }
-}
-
-// Concrete creator classes
-class WordDocumentFactory extends DocumentFactory {
-    @Override
-    public creational.Document createDocument() {
-        return new creational.WordDocument();
-    }
-}
-
-class ExcelDocumentFactory extends DocumentFactory {
-    @Override
-    public creational.Document createDocument() {
-        return new creational.ExcelDocument();
-    }
-}
-
-class PDFDocumentFactory extends DocumentFactory {
-    @Override
-    public creational.Document createDocument() {
-        return new creational.PDFDocument();
-    }
-}
-
 class Client {
-    public static void main(String[] args) {
+    // with arguments, runs a whole batch instead: Client <manifest|directory> [parallelism]
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length > 0) {
+            int parallelism = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+            processBatch(BatchEntry.read(Path.of(args[0])), parallelism);
+            return;
+        }
         Scanner scanner = new Scanner(System.in);
         System.out.println("Enter the type of document to create (word/excel/pdf):");
         String documentType = scanner.nextLine();
-        documentType = documentType.trim().toLowerCase();
 
         DocumentFactory documentFactory = DocumentFactory.getFactory(documentType);
 
@@ -146,4 +48,41 @@ class Client {
         }
         scanner.close();
     }
+
+    static void processBatch(List<BatchEntry> entries, int parallelism) throws InterruptedException {
+        try (DocumentPipeline<creational.Document> pipeline = DocumentPipeline.<creational.Document>newBuilder()
+                .setParallelism(parallelism)
+                .addStage("open", creational.Document::open)
+                .addStage("save", creational.Document::save)
+                .addStage("close", creational.Document::close)
+                .setErrorHandler(Client::failed)
+                .build()) {
+            for (BatchEntry entry : entries) {
+                DocumentFactory factory = DocumentFactory.getFactory(entry.type());
+                if (factory == null) {
+                    Log.warn("Invalid document type: {}", entry.type());
+                    continue;
+                }
+                creational.Document document = factory.createDocument();
+                if (document instanceof StoredDocument stored) {
+                    stored.setPath(entry.path());
+                }
+                pipeline.submit(document);
+            }
+            pipeline.awaitCompletion();
+            pipeline.metrics().forEach(metric -> Log.info("{}", metric));
+        }
+    }
+
+    // the failed stage skipped the rest, so the document still has to be closed
+    private static void failed(creational.Document document, RuntimeException e) {
+        String name = document instanceof StoredDocument stored && stored.getPath() != null
+                ? stored.getPath().toString() : document.toString();
+        Log.warn("Failed {}: {}", name, e);
+        try {
+            document.close();
+        } catch (RuntimeException ignored) {
+            // the stage that failed was close itself
+        }
+    }
 }
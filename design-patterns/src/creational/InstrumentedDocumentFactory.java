@@ -0,0 +1,58 @@
+package creational;
+
+import instrumentation.Instrumentation;
+import instrumentation.LatencyRecorder;
+
+/**
+ * Decorator that records the latency of {@link DocumentFactory#createDocument()} and of
+ * the whole open/save/close cycle in {@link DocumentFactory#newDocument()}.
+ * {@link DocumentFactoryRegistry} wraps every factory it hands out when instrumentation
+ * is enabled.
+ */
+class InstrumentedDocumentFactory extends DocumentFactory {
+    private final DocumentFactory delegate;
+    private final LatencyRecorder createLatency;
+    private final LatencyRecorder newDocumentLatency;
+
+    private InstrumentedDocumentFactory(DocumentFactory delegate) {
+        this.delegate = delegate;
+        String type = delegate.getClass().getSimpleName();
+        this.createLatency = Instrumentation.recorder("document.createDocument." + type);
+        this.newDocumentLatency = Instrumentation.recorder("document.newDocument." + type);
+    }
+
+    // the factory itself while instrumentation is disabled
+    static DocumentFactory wrap(DocumentFactory factory) {
+        return Instrumentation.isEnabled() ? new InstrumentedDocumentFactory(factory) : factory;
+    }
+
+    @Override
+    public Document createDocument() {
+        long start = System.nanoTime();
+        try {
+            return delegate.createDocument();
+        } finally {
+            createLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void newDocument() {
+        long start = System.nanoTime();
+        try {
+            delegate.newDocument();
+        } finally {
+            newDocumentLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    DocumentPool enablePooling() {
+        return delegate.enablePooling();
+    }
+
+    @Override
+    DocumentPool pool() {
+        return delegate.pool();
+    }
+}
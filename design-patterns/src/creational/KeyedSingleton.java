@@ -0,0 +1,38 @@
+package creational;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Base class for instances managed by a {@link MultitonRegistry}.
+ */
+abstract class KeyedSingleton<K extends Serializable> implements Serializable, Cloneable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final K key;
+
+    // the registry is passed in because its own guard is the one that counts
+    protected KeyedSingleton(MultitonRegistry<K, ?> registry, K key) {
+        if (!registry.isConstructing(key)) {
+            throw new RuntimeException("Use getInstance(key) " +
+                    "method to get the instance for key " + key + ".");
+        }
+        this.key = key;
+    }
+
+    public K getKey() {
+        return key;
+    }
+
+    protected abstract MultitonRegistry<K, ?> registry();
+
+    protected Object readResolve() {
+        return registry().get(key);
+    }
+
+    @Override
+    protected Object clone() throws CloneNotSupportedException {
+        throw new CloneNotSupportedException("creational.KeyedSingleton cannot be cloned.");
+    }
+}
@@ -0,0 +1,106 @@
+package creational;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Keyed singleton ("multiton") registry: at most one instance per key, created lazily.
+ * <p>
+ * Every key gets its own slot in a {@link ConcurrentHashMap}. A new key starts with a
+ * pending slot, and construction locks only that slot. Different keys therefore
+ * initialise in parallel, a slow constructor only blocks callers asking for the same key,
+ * and adding a key costs the same however many keys exist. Each key is constructed
+ * exactly once; if the factory throws, nothing is published and the next caller tries
+ * again. A factory that asks for the key it is constructing, directly or through other
+ * keys, gets an {@link IllegalStateException} instead of recursing.
+ * <p>
+ * Once an instance is constructed its pending slot is replaced by an immutable one that
+ * holds the instance in a final field, so a lookup is the map read and nothing else: no
+ * lock and no second volatile read.
+ * <p>
+ * Instances should extend {@link KeyedSingleton}, which carries over the protections of
+ * {@link DatabaseConnectionSingleton}: no construction outside the registry (reflection
+ * included), no cloning, and deserialization resolves to the registered instance.
+ */
+public class MultitonRegistry<K, V> {
+    private final Function<? super K, ? extends V> factory;
+    private final ConcurrentHashMap<K, Slot<V>> instances = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    // key this thread is constructing in this registry, checked by KeyedSingleton's constructor
+    private final ThreadLocal<Object> constructing = new ThreadLocal<>();
+
+    public MultitonRegistry(Function<? super K, ? extends V> factory) {
+        this.factory = Objects.requireNonNull(factory);
+    }
+
+    public V get(K key) {
+        Slot<V> slot = instances.get(Objects.requireNonNull(key));
+        if (slot instanceof Ready<V> ready) {
+            return ready.instance();
+        }
+        return create(key, slot);
+    }
+
+    // number of keys with a constructed instance
+    public int size() {
+        return size.get();
+    }
+
+    boolean isConstructing(Object key) {
+        return Objects.equals(constructing.get(), key);
+    }
+
+    private V create(K key, Slot<V> slot) {
+        if (slot == null) {
+            // only allocates the pending slot; the factory never runs inside the map's bin lock
+            slot = instances.computeIfAbsent(key, k -> new Pending<>());
+        }
+        if (slot instanceof Ready<V> ready) {
+            return ready.instance();
+        }
+        Pending<V> pending = (Pending<V>) slot;
+        synchronized (pending) {
+            if (pending.constructor == Thread.currentThread()) {
+                // the monitor is re-entrant, so without this the factory would recurse until the stack overflows
+                throw new IllegalStateException("Key " + key + " is already being constructed by this thread.");
+            }
+            // a slot only ever goes from pending to ready
+            if (instances.get(key) instanceof Ready<V> ready) {
+                return ready.instance();
+            }
+            pending.constructor = Thread.currentThread();
+            try {
+                V instance = construct(key);
+                instances.put(key, new Ready<>(instance));
+                size.incrementAndGet();
+                return instance;
+            } finally {
+                pending.constructor = null;
+            }
+        }
+    }
+
+    private V construct(K key) {
+        Object outer = constructing.get();
+        constructing.set(key);
+        try {
+            return Objects.requireNonNull(factory.apply(key), "factory returned null");
+        } finally {
+            constructing.set(outer);
+        }
+    }
+
+    private sealed interface Slot<V> permits Pending, Ready {
+    }
+
+    // lock of a key that has no instance yet
+    private static final class Pending<V> implements Slot<V> {
+        // thread running the factory for this key, guarded by this slot's monitor
+        private Thread constructor;
+    }
+
+    private record Ready<V>(V instance) implements Slot<V> {
+    }
+}
@@ -0,0 +1,31 @@
+package creational;
+
+import creational.io.DocumentSerializer;
+import creational.io.PdfSerializer;
+import logging.Log;
+
+// Concrete product class
+class PDFDocument extends AbstractDocument {
+    private static final DocumentSerializer format = new PdfSerializer();
+
+    PDFDocument() {
+        super(format);
+    }
+
+    @Override
+    public void open() {
+        Log.info("Opening PDF document...");
+        load();
+    }
+
+    @Override
+    public void save() {
+        Log.info("Saving PDF document...");
+        store();
+    }
+
+    @Override
+    protected void onClose() {
+        Log.info("Closing PDF document...");
+    }
+}
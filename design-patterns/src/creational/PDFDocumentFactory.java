@@ -0,0 +1,9 @@
+package creational;
+
+// Concrete creator class
+class PDFDocumentFactory extends DocumentFactory {
+    @Override
+    public Document createDocument() {
+        return new PDFDocument();
+    }
+}
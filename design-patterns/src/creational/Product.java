@@ -0,0 +1,195 @@
+package creational;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A product as the rest of the code sees it. {@link Builder#build()} returns a standalone
+ * product holding its own fields; {@link ProductCatalog#get(int)} returns a view of a
+ * catalog row that holds nothing but the row number.
+ * <p>
+ * Features are frozen when a product is built: they are copied once into an unmodifiable
+ * list, so code downstream can hold on to the list without copying it again. Hot paths
+ * can reuse {@link #threadBuilder()} instead of allocating a builder per product, or
+ * build whole batches from arrays with
+ * {@link #buildAll(String[], double[], String[][], String[])}.
+ */
+abstract class Product implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public abstract String getName();
+
+    public abstract double getPrice();
+
+    public abstract List<String> getFeatures();
+
+    public abstract String getDescription();
+
+    private static final ThreadLocal<Builder> threadBuilders = ThreadLocal.withInitial(Builder::new);
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    // the calling thread's builder, reset; must not be handed to another thread
+    public static Builder threadBuilder() {
+        return threadBuilders.get().reset();
+    }
+
+    // one product per index of the equal-length columns. descriptions may be null to leave
+    // every description out; names, features and descriptions may hold null elements, and
+    // so may each feature array. Neighbours given the same feature array share one frozen copy.
+    public static Product[] buildAll(String[] names, double[] prices, String[][] features, String[] descriptions) {
+        int count = prices.length;
+        if (names.length != count || features.length != count || (descriptions != null && descriptions.length != count)) {
+            throw new IllegalArgumentException("Column lengths differ: " + names.length + " names, " + count
+                    + " prices, " + features.length + " feature sets");
+        }
+        Product[] products = new Product[count];
+        String[] previousArray = null;
+        List<String> frozen = null;
+        for (int i = 0; i < count; i++) {
+            // runs of products sharing one feature array share one frozen list
+            if (features[i] != previousArray) {
+                previousArray = features[i];
+                frozen = previousArray != null ? freeze(previousArray) : null;
+            }
+            products[i] = new Detached(names[i], prices[i], frozen, descriptions != null ? descriptions[i] : null);
+        }
+        return products;
+    }
+
+    // the same columns appended straight to a catalog, without any product objects
+    public static void addAll(ProductCatalog catalog, String[] names, double[] prices, String[][] features,
+                              String[] descriptions) {
+        for (int i = 0; i < prices.length; i++) {
+            catalog.append(names[i], prices[i], features[i] != null ? Arrays.asList(features[i]) : null,
+                    descriptions != null ? descriptions[i] : null);
+        }
+    }
+
+    // an unmodifiable copy; unlike List.of it accepts null features
+    private static List<String> freeze(String[] features) {
+        return Collections.unmodifiableList(Arrays.asList(features.clone()));
+    }
+
+    private static class Detached extends Product {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+        private final double price;
+        // always one of the unmodifiable copies made here, which are serializable
+        @SuppressWarnings("serial")
+        private final List<String> features;
+        private final String description;
+
+        //private constructor for builder
+        private Detached(String name, double price, List<String> features, String description) {
+            this.name = name;
+            this.price = price;
+            this.features = features;
+            this.description = description;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public double getPrice() {
+            return price;
+        }
+
+        @Override
+        public List<String> getFeatures() {
+            return features;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    //builder class
+    public static class Builder {
+        private String name;
+        private double price;
+        private List<String> features;
+        private String[] featureArray;
+        private String description;
+
+        public Builder setName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder setPrice(double price) {
+            this.price = price;
+            return this;
+        }
+
+        public Builder setFeatures(List<String> features) {
+            this.features = features;
+            this.featureArray = null;
+            return this;
+        }
+
+        // the array is copied when the product is built, not here; named apart from
+        // setFeatures so that setFeatures(null) is not ambiguous
+        public Builder setFeatureArray(String... features) {
+            this.featureArray = features;
+            this.features = null;
+            return this;
+        }
+
+        public Builder setDescription(String description) {
+            this.description = description;
+            return this;
+        }
+
+        public Product build() {
+            return new Detached(name, price, frozenFeatures(), description);
+        }
+
+        // appends the product to the catalog instead of creating an object; returns its row
+        public int addTo(ProductCatalog catalog) {
+            return catalog.append(name, price, featureArray != null ? Arrays.asList(featureArray) : features,
+                    description);
+        }
+
+        // clears every field so the builder can be reused
+        public Builder reset() {
+            name = null;
+            price = 0;
+            features = null;
+            featureArray = null;
+            description = null;
+            return this;
+        }
+
+        // List.copyOf, which keeps an already immutable list as it is, unless a feature is
+        // null; only the wrapped copy accepts those
+        private List<String> frozenFeatures() {
+            if (featureArray != null) {
+                return freeze(featureArray);
+            }
+            if (features == null) {
+                return null;
+            }
+            for (String feature : features) {
+                if (feature == null) {
+                    return Collections.unmodifiableList(new ArrayList<>(features));
+                }
+            }
+            return List.copyOf(features);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package creational;
+
+import java.io.Serial;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Column store for very large numbers of {@link Product}s.
+ * <p>
+ * Every field is a column indexed by row. Prices sit in a {@code double[]}. Names,
+ * descriptions and features are interned into dictionaries and stored as {@code int}
+ * codes, so a string that occurs a million times is kept once. The features of all
+ * rows share one flat code array, and {@code featureStart[row]} to
+ * {@code featureStart[row + 1]} delimits each row's slice. A row therefore costs a
+ * fixed 20 bytes (price, name and description codes, feature start) plus 4 per feature,
+ * instead of a product object, a list and their strings.
+ * <p>
+ * {@link #get(int)} returns a {@link Product} that is only a view of its row: the strings
+ * come from the dictionaries and the feature list wraps the row's codes. Rows are
+ * appended with {@link Product.Builder#addTo(ProductCatalog)} and never change.
+ * <p>
+ * {@link #enableIndex(int)} adds a {@link ProductIndex} that finds rows by feature and
+ * price and is kept up to date by every append.
+ * <p>
+ * Appends are not thread-safe. Reads may come from any thread once the catalog has been
+ * safely published and nothing is appended any more.
+ */
+class ProductCatalog {
+    private static final int NONE = -1;
+
+    private final Dictionary names = new Dictionary();
+    private final Dictionary descriptions = new Dictionary();
+    private final Dictionary features = new Dictionary();
+
+    private int size;
+    private double[] prices;
+    private int[] nameCodes;
+    private int[] descriptionCodes;
+    // row r owns featureCodes[featureStart[r] .. featureStart[r + 1])
+    private int[] featureStart;
+    private int[] featureCodes;
+    // optional, maintained by append() once enabled
+    private ProductIndex index;
+
+    public ProductCatalog() {
+        this(1024);
+    }
+
+    public ProductCatalog(int expectedRows) {
+        int capacity = Math.max(expectedRows, 16);
+        prices = new double[capacity];
+        nameCodes = new int[capacity];
+        descriptionCodes = new int[capacity];
+        featureStart = new int[capacity + 1];
+        featureCodes = new int[capacity * 4];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Product get(int row) {
+        return new RowView(this, checkRow(row));
+    }
+
+    // hands every row to the action through one reused view, which must not be kept
+    public void forEach(Consumer<? super Product> action) {
+        RowView view = new RowView(this, 0);
+        for (int row = 0; row < size; row++) {
+            view.row = row;
+            action.accept(view);
+        }
+    }
+
+    // indexes the rows appended so far and every later one; idempotent
+    public ProductIndex enableIndex(int cacheSize) {
+        if (index == null) {
+            ProductIndex created = new ProductIndex(this, cacheSize);
+            for (int row = 0; row < size; row++) {
+                created.add(row, featureCodes, featureStart[row], featureStart[row + 1]);
+            }
+            index = created;
+        }
+        return index;
+    }
+
+    public ProductIndex index() {
+        return index;
+    }
+
+    public double price(int row) {
+        return prices[checkRow(row)];
+    }
+
+    public int featureCount(int row) {
+        checkRow(row);
+        return featureStart[row + 1] - featureStart[row];
+    }
+
+    // dictionary code of a feature, or -1 if no row has it
+    public int featureCode(String feature) {
+        return features.codeOf(feature);
+    }
+
+    public String feature(int code) {
+        return features.valueOf(code);
+    }
+
+    public int distinctFeatures() {
+        return features.size();
+    }
+
+    public boolean hasFeature(int row, int code) {
+        checkRow(row);
+        for (int i = featureStart[row], end = featureStart[row + 1]; i < end; i++) {
+            if (featureCodes[i] == code) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // copies the row's feature codes into target and returns how many there are
+    public int featureCodes(int row, int[] target) {
+        int count = featureCount(row);
+        System.arraycopy(featureCodes, featureStart[row], target, 0, Math.min(count, target.length));
+        return count;
+    }
+
+    int append(String name, double price, List<String> rowFeatures, String description) {
+        if (size == prices.length) {
+            int capacity = size + (size >> 1);
+            prices = Arrays.copyOf(prices, capacity);
+            nameCodes = Arrays.copyOf(nameCodes, capacity);
+            descriptionCodes = Arrays.copyOf(descriptionCodes, capacity);
+            featureStart = Arrays.copyOf(featureStart, capacity + 1);
+        }
+        int start = featureStart[size];
+        int count = rowFeatures != null ? rowFeatures.size() : 0;
+        if (start + count > featureCodes.length) {
+            featureCodes = Arrays.copyOf(featureCodes, Math.max(start + count, featureCodes.length + (featureCodes.length >> 1)));
+        }
+        for (int i = 0; i < count; i++) {
+            featureCodes[start + i] = features.intern(rowFeatures.get(i));
+        }
+        prices[size] = price;
+        nameCodes[size] = names.intern(name);
+        descriptionCodes[size] = descriptions.intern(description);
+        featureStart[size + 1] = start + count;
+        int row = size++;
+        if (index != null) {
+            index.add(row, featureCodes, start, start + count);
+        }
+        return row;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+        return row;
+    }
+
+    // each distinct string once, numbered in order of first appearance; null is NONE
+    private static class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int intern(String value) {
+            if (value == null) {
+                return NONE;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        int codeOf(String value) {
+            Integer code = value != null ? codes.get(value) : null;
+            return code != null ? code : NONE;
+        }
+
+        String valueOf(int code) {
+            return code == NONE ? null : values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+
+    private static class RowView extends Product {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient ProductCatalog catalog;
+        private transient int row;
+
+        RowView(ProductCatalog catalog, int row) {
+            this.catalog = catalog;
+            this.row = row;
+        }
+
+        @Override
+        public String getName() {
+            return catalog.names.valueOf(catalog.nameCodes[row]);
+        }
+
+        @Override
+        public double getPrice() {
+            return catalog.prices[row];
+        }
+
+        @Override
+        public List<String> getFeatures() {
+            int start = catalog.featureStart[row];
+            int end = catalog.featureStart[row + 1];
+            return new AbstractList<>() {
+                @Override
+                public String get(int index) {
+                    if (index < 0 || index >= end - start) {
+                        throw new IndexOutOfBoundsException(index);
+                    }
+                    return catalog.features.valueOf(catalog.featureCodes[start + index]);
+                }
+
+                @Override
+                public int size() {
+                    return end - start;
+                }
+            };
+        }
+
+        @Override
+        public String getDescription() {
+            return catalog.descriptions.valueOf(catalog.descriptionCodes[row]);
+        }
+
+        // a view cannot travel without its catalog, so it is written as a standalone product;
+        // build() copies the features, null elements included
+        @Serial
+        private Object writeReplace() {
+            return newBuilder()
+                    .setName(getName())
+                    .setPrice(getPrice())
+                    .setFeatures(getFeatures())
+                    .setDescription(getDescription())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package creational;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Binary format for {@link Product}s, used instead of Java serialization.
+ * <p>
+ * A stream starts with a magic number and a version byte, followed by records. Each
+ * record begins with a tag byte:
+ * <ul>
+ *   <li>{@code FEATURE}: a feature string that has not been seen yet in this stream.
+ *   It takes the next dictionary code.</li>
+ *   <li>{@code PRODUCT}: a flags byte saying which of name, features and description are
+ *   present, then the name, the price as 8 bytes, a varint feature count and the varint
+ *   codes of the features, and the description. A product without a feature list has
+ *   no count at all, so it reads back as null rather than as an empty list.</li>
+ *   <li>{@code END}: the end of the stream.</li>
+ * </ul>
+ * Strings are a varint byte length followed by UTF-8. Each feature string is written
+ * once per stream and every later use costs one or two bytes. Version 1 streams had no
+ * features flag and always carried a count; they are still read.
+ * <p>
+ * {@link Encoder} and {@link Decoder} work on caller-supplied buffers. A product that
+ * does not fit or is not complete yet leaves the buffer and the dictionary untouched,
+ * so both can be driven from any channel. {@link #write(Iterable, WritableByteChannel)}
+ * and {@link #read(ReadableByteChannel, Consumer)} do that for whole batches.
+ */
+final class ProductCodec {
+    static final int MAGIC = 0x50524431; // "PRD1"
+    static final byte VERSION = 2;
+
+    private static final byte END = 0;
+    private static final byte FEATURE = 1;
+    private static final byte PRODUCT = 2;
+    private static final int HAS_NAME = 1;
+    private static final int HAS_DESCRIPTION = 2;
+    private static final int HAS_FEATURES = 4;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ProductCodec() {
+    }
+
+    static Encoder newEncoder() {
+        return new Encoder();
+    }
+
+    static Decoder newDecoder() {
+        return new Decoder();
+    }
+
+    static void write(Iterable<? extends Product> products, Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(products, channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void read(Path file, Consumer<? super Product> sink) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            read(channel, sink);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void write(Iterable<? extends Product> products, WritableByteChannel channel) throws IOException {
+        Encoder encoder = newEncoder();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        encoder.writeHeader(buffer);
+        for (Product product : products) {
+            while (!encoder.encode(product, buffer)) {
+                if (buffer.position() == 0) {
+                    // a single product larger than the buffer
+                    buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+                    continue;
+                }
+                drain(buffer, channel);
+            }
+        }
+        while (!encoder.writeEnd(buffer)) {
+            drain(buffer, channel);
+        }
+        drain(buffer, channel);
+    }
+
+    // hands every product to the sink in stream order and returns how many there were
+    static long read(ReadableByteChannel channel, Consumer<? super Product> sink) throws IOException {
+        Decoder decoder = newDecoder();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        boolean headerRead = false;
+        long count = 0;
+        while (true) {
+            boolean ended = channel.read(buffer) < 0;
+            buffer.flip();
+            if (!headerRead && buffer.remaining() >= 5) {
+                decoder.readHeader(buffer);
+                headerRead = true;
+            }
+            Product product;
+            while (headerRead && (product = decoder.decode(buffer)) != null) {
+                sink.accept(product);
+                count++;
+            }
+            if (decoder.isFinished()) {
+                return count;
+            }
+            if (ended) {
+                throw new IOException("Product stream is truncated");
+            }
+            if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+                // a single product larger than the buffer
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer);
+            } else {
+                buffer.compact();
+            }
+        }
+    }
+
+    private static void drain(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    static void putVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static int getVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        int length = value.length();
+        boolean ascii = true;
+        for (int i = 0; i < length && ascii; i++) {
+            ascii = value.charAt(i) < 0x80;
+        }
+        if (ascii) {
+            // one byte per char, written without an intermediate array
+            putVarint(out, length);
+            if (out.remaining() < length) {
+                throw new BufferOverflowException();
+            }
+            for (int i = 0; i < length; i++) {
+                out.put((byte) value.charAt(i));
+            }
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putVarint(out, bytes.length);
+            out.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = getVarint(in);
+        if (in.remaining() < length) {
+            throw new BufferUnderflowException();
+        }
+        String value;
+        if (in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    /**
+     * Writes products into buffers, remembering which feature strings it already wrote.
+     * One encoder per stream; not thread-safe.
+     */
+    static final class Encoder {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> added = new ArrayList<>();
+
+        private Encoder() {
+        }
+
+        void writeHeader(ByteBuffer out) {
+            out.putInt(MAGIC).put(VERSION);
+        }
+
+        boolean writeEnd(ByteBuffer out) {
+            if (!out.hasRemaining()) {
+                return false;
+            }
+            out.put(END);
+            return true;
+        }
+
+        // false, with buffer and dictionary unchanged, when the product does not fit
+        boolean encode(Product product, ByteBuffer out) {
+            int start = out.position();
+            added.clear();
+            try {
+                List<String> features = product.getFeatures();
+                int count = features != null ? features.size() : 0;
+                for (int i = 0; i < count; i++) {
+                    String feature = Objects.requireNonNull(features.get(i), "feature");
+                    if (!codes.containsKey(feature)) {
+                        codes.put(feature, codes.size());
+                        added.add(feature);
+                        out.put(FEATURE);
+                        putString(out, feature);
+                    }
+                }
+                String name = product.getName();
+                String description = product.getDescription();
+                out.put(PRODUCT);
+                out.put((byte) ((name != null ? HAS_NAME : 0) | (description != null ? HAS_DESCRIPTION : 0)
+                        | (features != null ? HAS_FEATURES : 0)));
+                if (name != null) {
+                    putString(out, name);
+                }
+                out.putDouble(product.getPrice());
+                if (features != null) {
+                    putVarint(out, count);
+                    for (int i = 0; i < count; i++) {
+                        putVarint(out, codes.get(features.get(i)));
+                    }
+                }
+                if (description != null) {
+                    putString(out, description);
+                }
+                return true;
+            } catch (BufferOverflowException e) {
+                out.position(start);
+                for (String feature : added) {
+                    codes.remove(feature);
+                }
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Reads products back. Every decoded product shares the feature strings of the
+     * dictionary, so they are held once no matter how many products use them.
+     */
+    static final class Decoder {
+        private final List<String> dictionary = new ArrayList<>();
+        private final Product.Builder builder = Product.newBuilder();
+        private byte version;
+        private boolean finished;
+
+        private Decoder() {
+        }
+
+        void readHeader(ByteBuffer in) {
+            int magic = in.getInt();
+            byte version = in.get();
+            if (magic != MAGIC || version < 1 || version > VERSION) {
+                throw new IllegalArgumentException("Not a product stream (magic " + Integer.toHexString(magic)
+                        + ", version " + version + ")");
+            }
+            this.version = version;
+        }
+
+        boolean isFinished() {
+            return finished;
+        }
+
+        // null, with buffer and dictionary unchanged, when the next product is incomplete or the stream ended
+        Product decode(ByteBuffer in) {
+            if (finished) {
+                return null;
+            }
+            int start = in.position();
+            int dictionarySize = dictionary.size();
+            try {
+                while (true) {
+                    byte tag = in.get();
+                    switch (tag) {
+                        case FEATURE -> dictionary.add(getString(in));
+                        case PRODUCT -> {
+                            return readProduct(in);
+                        }
+                        case END -> {
+                            finished = true;
+                            return null;
+                        }
+                        default -> throw new IllegalArgumentException("Unknown record tag " + tag);
+                    }
+                }
+            } catch (BufferUnderflowException e) {
+                in.position(start);
+                dictionary.subList(dictionarySize, dictionary.size()).clear();
+                return null;
+            }
+        }
+
+        private Product readProduct(ByteBuffer in) {
+            int flags = in.get();
+            String name = (flags & HAS_NAME) != 0 ? getString(in) : null;
+            double price = in.getDouble();
+            String[] features = null;
+            if (version == 1 || (flags & HAS_FEATURES) != 0) {
+                features = new String[getVarint(in)];
+                for (int i = 0; i < features.length; i++) {
+                    features[i] = dictionary.get(getVarint(in));
+                }
+            }
+            String description = (flags & HAS_DESCRIPTION) != 0 ? getString(in) : null;
+            // build() copies the features, so the array is only wrapped here
+            return builder.setName(name)
+                    .setPrice(price)
+                    .setFeatures(features != null ? Arrays.asList(features) : null)
+                    .setDescription(description)
+                    .build();
+        }
+    }
+}
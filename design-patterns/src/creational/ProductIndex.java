@@ -0,0 +1,208 @@
+package creational;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from feature to the {@link ProductCatalog} rows that have it.
+ * <p>
+ * Each feature code owns a {@link RoaringBitmap} posting list. The catalog adds every
+ * appended row to the lists of its features, so the index is always current. A
+ * {@link Query} intersects its {@code allOf} lists from the smallest up, unions its
+ * {@code anyOf} lists, and then checks prices against the catalog's price column.
+ * <p>
+ * Results are cached in a bounded LRU map keyed by the query. Every insert bumps a
+ * generation counter, and cached results from an older generation are dropped when they
+ * are looked up. Invalidation therefore costs one increment however many results are
+ * cached.
+ * <p>
+ * Like the catalog, the index expects appends from one thread at a time. Queries may run
+ * from any thread while nothing is being appended.
+ */
+class ProductIndex {
+    private final ProductCatalog catalog;
+    private final List<RoaringBitmap> postings = new ArrayList<>();
+    private final Map<Query, Cached> cache;
+    private volatile long generation;
+    private long hits;
+    private long misses;
+
+    ProductIndex(ProductCatalog catalog, int cacheSize) {
+        this.catalog = catalog;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Query, Cached> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public static Query allOf(String... features) {
+        return new Query(Set.copyOf(Arrays.asList(features)), Set.of(), Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    public static Query anyOf(String... features) {
+        return new Query(Set.of(), Set.copyOf(Arrays.asList(features)), Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    // matching rows in increasing order
+    public int[] find(Query query) {
+        return lookup(query).toArray();
+    }
+
+    public int count(Query query) {
+        return lookup(query).cardinality();
+    }
+
+    public List<Product> products(Query query) {
+        int[] rows = find(query);
+        List<Product> products = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            products.add(catalog.get(row));
+        }
+        return products;
+    }
+
+    public synchronized long cacheHits() {
+        return hits;
+    }
+
+    public synchronized long cacheMisses() {
+        return misses;
+    }
+
+    // called by the catalog for every appended row with the row's slice of its feature codes;
+    // null features have no code and are not indexed
+    void add(int row, int[] featureCodes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int code = featureCodes[i];
+            if (code < 0) {
+                continue;
+            }
+            while (postings.size() <= code) {
+                postings.add(new RoaringBitmap());
+            }
+            postings.get(code).add(row);
+        }
+        generation++;
+    }
+
+    private RoaringBitmap lookup(Query query) {
+        long current = generation;
+        synchronized (this) {
+            Cached cached = cache.get(query);
+            if (cached != null && cached.generation == current) {
+                hits++;
+                return cached.rows;
+            }
+            misses++;
+        }
+        RoaringBitmap rows = evaluate(query);
+        synchronized (this) {
+            cache.put(query, new Cached(rows, current));
+        }
+        return rows;
+    }
+
+    private RoaringBitmap evaluate(Query query) {
+        RoaringBitmap matches = null;
+        if (!query.allOf().isEmpty()) {
+            RoaringBitmap[] lists = new RoaringBitmap[query.allOf().size()];
+            int count = 0;
+            for (String feature : query.allOf()) {
+                RoaringBitmap list = posting(feature);
+                if (list == null) {
+                    return new RoaringBitmap();
+                }
+                lists[count++] = list;
+            }
+            // smallest first keeps every intermediate result small
+            Arrays.sort(lists, Comparator.comparingInt(RoaringBitmap::cardinality));
+            matches = lists[0];
+            for (int i = 1; i < count && !matches.isEmpty(); i++) {
+                matches = RoaringBitmap.and(matches, lists[i]);
+            }
+            if (matches == lists[0]) {
+                // postings keep growing with every append, so a result must never be one of them
+                matches = matches.copy();
+            }
+        }
+        if (!query.anyOf().isEmpty()) {
+            RoaringBitmap union = new RoaringBitmap();
+            for (String feature : query.anyOf()) {
+                RoaringBitmap list = posting(feature);
+                if (list != null) {
+                    union = RoaringBitmap.or(union, list);
+                }
+            }
+            matches = matches == null ? union : RoaringBitmap.and(matches, union);
+        }
+        return filterByPrice(matches, query.minPrice(), query.maxPrice());
+    }
+
+    private RoaringBitmap filterByPrice(RoaringBitmap candidates, double min, double max) {
+        RoaringBitmap result = new RoaringBitmap();
+        if (candidates == null) {
+            // no feature terms: the price column is the only filter
+            for (int row = 0, size = catalog.size(); row < size; row++) {
+                double price = catalog.price(row);
+                if (price >= min && price <= max) {
+                    result.add(row);
+                }
+            }
+            return result;
+        }
+        if (min == Double.NEGATIVE_INFINITY && max == Double.POSITIVE_INFINITY) {
+            return candidates;
+        }
+        candidates.forEach(row -> {
+            double price = catalog.price(row);
+            if (price >= min && price <= max) {
+                result.add(row);
+            }
+        });
+        return result;
+    }
+
+    private RoaringBitmap posting(String feature) {
+        int code = catalog.featureCode(feature);
+        return code >= 0 && code < postings.size() ? postings.get(code) : null;
+    }
+
+    private record Cached(RoaringBitmap rows, long generation) {
+    }
+
+    /**
+     * Rows having every {@code allOf} feature, at least one {@code anyOf} feature when any
+     * are given, and a price within {@code [minPrice, maxPrice]}. Feature order does not
+     * matter, so equal queries share a cache entry.
+     */
+    public record Query(Set<String> allOf, Set<String> anyOf, double minPrice, double maxPrice) {
+        public Query {
+            allOf = Set.copyOf(allOf);
+            anyOf = Set.copyOf(anyOf);
+        }
+
+        public Query and(String... features) {
+            Set<String> all = new HashSet<>(allOf);
+            all.addAll(List.of(features));
+            return new Query(all, anyOf, minPrice, maxPrice);
+        }
+
+        public Query or(String... features) {
+            Set<String> any = new HashSet<>(anyOf);
+            any.addAll(List.of(features));
+            return new Query(allOf, any, minPrice, maxPrice);
+        }
+
+        public Query priceBetween(double min, double max) {
+            return new Query(allOf, anyOf, min, max);
+        }
+    }
+}
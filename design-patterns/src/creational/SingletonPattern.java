@@ -1,7 +1,14 @@
 package creational;
 
+import instrumentation.Instrumentation;
+import instrumentation.LatencyRecorder;
+
+import java.io.Serial;
 import java.lang.reflect.Constructor;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * creational.Singleton Design Pattern is a creational design pattern that
@@ -37,6 +44,10 @@ public class SingletonPattern {
             e.printStackTrace();
         }
 
+        // one instance per tenant instead of one per JVM
+        TenantDatabaseConnection tenantA = TenantDatabaseConnection.getInstance("tenant-a");
+        System.out.println(tenantA == TenantDatabaseConnection.getInstance("tenant-a"));
+        System.out.println(tenantA == TenantDatabaseConnection.getInstance("tenant-b"));
 
 
     }
@@ -45,7 +56,12 @@ public class SingletonPattern {
 
 
 class DatabaseConnectionSingleton {
+    // static methods cannot be decorated; null, and folded away by the JIT, when instrumentation is off
+    private static final LatencyRecorder getInstanceLatency =
+            Instrumentation.recorderIfEnabled("singleton.getInstance");
     private static volatile DatabaseConnectionSingleton instance;
+    // pooled mode: callers lease their own connection instead of sharing this instance
+    private volatile ConnectionPool<DatabaseConnection> pool;
 
     private DatabaseConnectionSingleton() {
         if(instance != null) {
@@ -64,6 +80,18 @@ class DatabaseConnectionSingleton {
     }
 
     public static DatabaseConnectionSingleton getInstance() {
+        if (getInstanceLatency == null) {
+            return instance();
+        }
+        long start = System.nanoTime();
+        try {
+            return instance();
+        } finally {
+            getInstanceLatency.recordSince(start);
+        }
+    }
+
+    private static DatabaseConnectionSingleton instance() {
         if(instance == null) {
             synchronized (DatabaseConnectionSingleton.class) {
                 if(instance == null) {
@@ -75,6 +103,82 @@ class DatabaseConnectionSingleton {
         return instance;
     }
 
+    public synchronized void enablePooling(ConnectionPool.Builder<DatabaseConnection> config) {
+        if (pool != null) {
+            throw new IllegalStateException("Pooling is already enabled.");
+        }
+        pool = config.build();
+    }
+
+    public ConnectionPool.Lease<DatabaseConnection> lease(long timeout, TimeUnit unit)
+            throws InterruptedException, TimeoutException {
+        return pool().borrow(timeout, unit);
+    }
+
+    public ConnectionPool<DatabaseConnection> pool() {
+        ConnectionPool<DatabaseConnection> current = pool;
+        if (current == null) {
+            throw new IllegalStateException("Call enablePooling() first.");
+        }
+        return current;
+    }
+
+}
+
+class TenantDatabaseConnection extends KeyedSingleton<String> {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    private static final MultitonRegistry<String, TenantDatabaseConnection> registry =
+            new MultitonRegistry<>(TenantDatabaseConnection::new);
+
+    private TenantDatabaseConnection(String tenant) {
+        super(registry, tenant);
+        System.out.println("Instance created for " + tenant);
+    }
+
+    public static TenantDatabaseConnection getInstance(String tenant) {
+        return registry.get(tenant);
+    }
+
+    @Override
+    protected MultitonRegistry<String, ?> registry() {
+        return registry;
+    }
+}
+
+interface DatabaseConnection {
+    boolean isValid();
+
+    void execute(String sql);
+
+    void close();
+}
+
+// in-memory stand-in so the pool can be exercised without a database
+class InMemoryConnection implements DatabaseConnection {
+    private static final AtomicInteger ids = new AtomicInteger();
+
+    private final int id = ids.incrementAndGet();
+    private volatile boolean open = true;
+    private long statements;
+
+    @Override
+    public boolean isValid() {
+        return open;
+    }
+
+    @Override
+    public void execute(String sql) {
+        if (!open) {
+            throw new IllegalStateException("Connection " + id + " is closed.");
+        }
+        statements++;
+    }
+
+    @Override
+    public void close() {
+        open = false;
+    }
 }
 
 
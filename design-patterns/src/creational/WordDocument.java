@@ -0,0 +1,31 @@
+package creational;
+
+import creational.io.DocumentSerializer;
+import creational.io.WordSerializer;
+import logging.Log;
+
+// Concrete product class
+class WordDocument extends AbstractDocument {
+    private static final DocumentSerializer format = new WordSerializer();
+
+    WordDocument() {
+        super(format);
+    }
+
+    @Override
+    public void open() {
+        Log.info("Opening Word document...");
+        load();
+    }
+
+    @Override
+    public void save() {
+        Log.info("Saving Word document...");
+        store();
+    }
+
+    @Override
+    protected void onClose() {
+        Log.info("Closing Word document...");
+    }
+}
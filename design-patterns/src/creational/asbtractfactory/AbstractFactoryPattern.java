@@ -1,6 +1,18 @@
 package creational.asbtractfactory;
 
+import creational.batch.BatchEntry;
+import creational.batch.DocumentPipeline;
+import creational.io.DocumentSerializer;
+import creational.io.ExcelSerializer;
+import creational.io.PdfSerializer;
+import creational.io.StoredDocument;
+import creational.io.WordSerializer;
+import logging.Log;
+
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Scanner;
+import java.util.function.Supplier;
 
 /**
  * Abstract Factory Pattern is a creational design pattern that provides
@@ -28,54 +40,82 @@ interface Document {
 }
 
 // Concrete product classes (WordDocument, ExcelDocument, PDFDocument remain the same)
-class WordDocument implements Document {
+// persistence goes through the same creational.io store as the factory-method documents
+class WordDocument extends StoredDocument implements Document {
+    private static final DocumentSerializer format = new WordSerializer();
+
+    WordDocument() {
+        super(format);
+    }
+
     @Override
     public void open() {
-        System.out.println("Opening Word document...");
+        Log.info("Opening Word document...");
+        load();
     }
 
     @Override
     public void save() {
-        System.out.println("Saving Word document...");
+        Log.info("Saving Word document...");
+        store();
     }
 
     @Override
     public void close() {
-        System.out.println("Closing Word document...");
+        Log.info("Closing Word document...");
+        unload();
     }
 }
 
-class ExcelDocument implements Document {
+class ExcelDocument extends StoredDocument implements Document {
+    private static final DocumentSerializer format = new ExcelSerializer();
+
+    ExcelDocument() {
+        super(format);
+    }
+
     @Override
     public void open() {
-        System.out.println("Opening Excel document...");
+        Log.info("Opening Excel document...");
+        load();
     }
 
     @Override
     public void save() {
-        System.out.println("Saving Excel document...");
+        Log.info("Saving Excel document...");
+        store();
     }
 
     @Override
     public void close() {
-        System.out.println("Closing Excel document...");
+        Log.info("Closing Excel document...");
+        unload();
     }
 }
 
-class PDFDocument implements Document {
+class PDFDocument extends StoredDocument implements Document {
+    private static final DocumentSerializer format = new PdfSerializer();
+
+    PDFDocument() {
+        super(format);
+    }
+
     @Override
     public void open() {
-        System.out.println("Opening PDF document...");
+        Log.info("Opening PDF document...");
+        load();
     }
 
     @Override
     public void save() {
-        System.out.println("Saving PDF document...");
+        Log.info("Saving PDF document...");
+        store();
     }
 
     @Override
     public void close() {
-        System.out.println("Closing PDF document...");
+        Log.info("Closing PDF document...");
+        unload();
     }
 }
 
@@ -86,6 +126,104 @@ interface DocumentAbstractFactory {
      Document createExcelDocument();
 
      Document createPDFDocument();
+
+     // unsupported types are declared here so callers never have to provoke the exception
+     default boolean supports(DocumentType type) {
+         return true;
+     }
+}
+
+// Document types an abstract factory can create
+enum DocumentType {
+    WORD, EXCEL, PDF;
+
+    private static final DocumentType[] VALUES = values();
+
+    // case-insensitive, ignores surrounding whitespace and allocates nothing; null for unknown types
+    static DocumentType parse(String text) {
+        return Keys.parse(text, VALUES);
+    }
+
+    // one creator per type, null where the factory does not support it
+    @SuppressWarnings("unchecked")
+    static Supplier<Document>[] creators(DocumentAbstractFactory factory) {
+        Supplier<Document>[] creators = (Supplier<Document>[]) new Supplier<?>[VALUES.length];
+        for (DocumentType type : VALUES) {
+            if (factory.supports(type)) {
+                creators[type.ordinal()] = switch (type) {
+                    case WORD -> factory::createWordDocument;
+                    case EXCEL -> factory::createExcelDocument;
+                    case PDF -> factory::createPDFDocument;
+                };
+            }
+        }
+        return creators;
+    }
+}
+
+/**
+ * The product families, each with one shared factory and a prebuilt creator per
+ * {@link DocumentType}. Looking up a (suite, type) pair is two array indexes; pairs the
+ * factory does not support have no creator, so {@link #create(DocumentType)} returns null
+ * for them instead of throwing.
+ */
+enum DocumentSuite {
+    MICROSOFT(new MicrosoftOfficeFactory()),
+    OPENSOURCE(new OpenSourceDocumentFactory());
+
+    private static final DocumentSuite[] VALUES = values();
+
+    private final DocumentAbstractFactory factory;
+    private final Supplier<Document>[] creators;
+
+    DocumentSuite(DocumentAbstractFactory factory) {
+        this.factory = factory;
+        this.creators = DocumentType.creators(factory);
+    }
+
+    static DocumentSuite parse(String text) {
+        return Keys.parse(text, VALUES);
+    }
+
+    DocumentAbstractFactory factory() {
+        return factory;
+    }
+
+    boolean supports(DocumentType type) {
+        return creators[type.ordinal()] != null;
+    }
+
+    Document create(DocumentType type) {
+        Supplier<Document> creator = creators[type.ordinal()];
+        return creator != null ? creator.get() : null;
+    }
+}
+
+// matches user input against enum constant names without trimming or lower-casing a copy
+final class Keys {
+    private Keys() {
+    }
+
+    static <E extends Enum<E>> E parse(String text, E[] values) {
+        if (text == null) {
+            return null;
+        }
+        int start = 0;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        for (E value : values) {
+            String name = value.name();
+            if (name.length() == end - start && name.regionMatches(true, 0, text, start, end - start)) {
+                return value;
+            }
+        }
+        return null;
+    }
 }
 
 // Concrete Factory 1: Creates a family of Microsoft Office related documents
@@ -102,10 +240,13 @@ class MicrosoftOfficeFactory implements DocumentAbstractFactory {
 
     @Override
     public Document createPDFDocument() {
-        // Microsoft Office factory might not create PDFs natively,
-        // but for demonstration, we can include it or return null/throw exception
-        System.out.println("Microsoft Office Factory does not natively create PDF. ");
-         throw new UnsupportedOperationException("Microsoft Office Factory does not natively create PDF.");
+        // Microsoft Office factory does not create PDFs natively; supports() says so up front
+        throw new UnsupportedOperationException("Microsoft Office Factory does not natively create PDF.");
+    }
+
+    @Override
+    public boolean supports(DocumentType type) {
+        return type != DocumentType.PDF;
     }
 }
 
@@ -113,13 +254,13 @@ class MicrosoftOfficeFactory implements DocumentAbstractFactory {
 class OpenSourceDocumentFactory implements DocumentAbstractFactory {
     @Override
     public Document createWordDocument() {
-        System.out.println("Creating Open Source Word-like document...");
+        Log.info("Creating Open Source Word-like document...");
         return new WordDocument(); // Could be a different concrete product if available
     }
 
     @Override
     public Document createExcelDocument() {
-        System.out.println("Creating Open Source Excel-like document...");
+        Log.info("Creating Open Source Excel-like document...");
         return new ExcelDocument(); // Could be a different concrete product if available
     }
 
@@ -131,38 +272,40 @@ class OpenSourceDocumentFactory implements DocumentAbstractFactory {
 
 // Factory for getting the Abstract Factory
 class DocumentFactoryProducer {
+    // the suite carries the shared factory and its creator table; null for unknown suites
+    public static DocumentSuite getSuite(String type) {
+        return DocumentSuite.parse(type);
+    }
+
+    // factories are stateless, so every suite shares one instance; null for unknown suites
     public static DocumentAbstractFactory getFactory(String type) {
-        return switch (type.toLowerCase()) {
-            case "microsoft" -> new MicrosoftOfficeFactory();
-            case "opensource" -> new OpenSourceDocumentFactory();
-            default -> throw new IllegalArgumentException("Invalid factory type: " + type);
-        };
+        DocumentSuite suite = getSuite(type);
+        return suite != null ? suite.factory() : null;
     }
 }
 
 class DocumentTypeFactory {
-    private final DocumentAbstractFactory factory;
-    private final Scanner scanner; // Inject scanner for consistency
+    // creates through the suite's table, so there is one dispatch table per suite
+    private final DocumentSuite suite;
 
-    public DocumentTypeFactory(DocumentAbstractFactory factory, Scanner scanner) {
-        this.factory = factory;
-        this.scanner = scanner;
+    public DocumentTypeFactory(DocumentSuite suite) {
+        this.suite = suite;
     }
 
 
-    public void processDocumentCreation() {
+    // interactive: the scanner is only needed here, so batch runs never hold one
+    public void processDocumentCreation(Scanner scanner) {
         System.out.println("Enter the specific document type to create (word/excel/pdf):");
-        String documentType = scanner.nextLine().trim().toLowerCase();
+        String documentType = scanner.nextLine();
 
         System.out.println("\n--- Creating a " + documentType + " document ---");
 
-        // Use the injected abstractFactory to create the specific document
-        Document document = switch (documentType) {
-            case "word" -> factory.createWordDocument();
-            case "excel" -> factory.createExcelDocument();
-            case "pdf" -> factory.createPDFDocument();
-            default -> throw new IllegalArgumentException("Invalid document type: " + documentType);
-        };
+        DocumentType type = DocumentType.parse(documentType);
+        if (type == null) {
+            throw new IllegalArgumentException("Invalid document type: " + documentType);
+        }
+        // Use the injected suite to create the specific document
+        Document document = createDocument(type);
 
         if (document != null) {
             document.open();
@@ -173,28 +316,81 @@ class DocumentTypeFactory {
         }
     }
 
+    // non-interactive: runs open, save and close of every entry as pipeline stages
+    public void processBatch(List<BatchEntry> entries, int parallelism) throws InterruptedException {
+        try (DocumentPipeline<Document> pipeline = DocumentPipeline.<Document>newBuilder()
+                .setParallelism(parallelism)
+                .addStage("open", Document::open)
+                .addStage("save", Document::save)
+                .addStage("close", Document::close)
+                .setErrorHandler(DocumentTypeFactory::failed)
+                .build()) {
+            for (BatchEntry entry : entries) {
+                DocumentType type = DocumentType.parse(entry.type());
+                Document document = type != null ? createDocument(type) : null;
+                if (document == null) {
+                    Log.warn("Skipping {}: {} is not supported", entry.path(), entry.type());
+                    continue;
+                }
+                if (document instanceof StoredDocument stored) {
+                    stored.setPath(entry.path());
+                }
+                pipeline.submit(document);
+            }
+            pipeline.awaitCompletion();
+            pipeline.metrics().forEach(metric -> Log.info("{}", metric));
+        }
+    }
+
+    // null when the suite does not support the type
+    Document createDocument(DocumentType type) {
+        return suite.create(type);
+    }
+
+    // the failed stage skipped the rest, so the document still has to be closed
+    private static void failed(Document document, RuntimeException e) {
+        String name = document instanceof StoredDocument stored && stored.getPath() != null
+                ? stored.getPath().toString() : document.toString();
+        Log.warn("Failed {}: {}", name, e);
+        try {
+            document.close();
+        } catch (RuntimeException ignored) {
+            // the stage that failed was close itself
+        }
+    }
+
 }
 
 public class AbstractFactoryPattern {
-    public static void main(String[] args) {
+    // with arguments, runs a whole batch instead:
+    // AbstractFactoryPattern <microsoft|opensource> <manifest|directory> [parallelism]
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length >= 2) {
+            int parallelism = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+            DocumentSuite suite = DocumentFactoryProducer.getSuite(args[0]);
+            if (suite == null) {
+                throw new IllegalArgumentException("Invalid factory type: " + args[0]);
+            }
+            new DocumentTypeFactory(suite).processBatch(BatchEntry.read(Path.of(args[1])), parallelism);
+            return;
+        }
         Scanner scanner = new Scanner(System.in);
 
         System.out.println("Enter the type of document suite to create (microsoft/opensource):");
         String factoryType = scanner.nextLine();
-        factoryType = factoryType.trim().toLowerCase();
 
-        DocumentAbstractFactory abstractFactory = DocumentFactoryProducer.getFactory(factoryType);
+        DocumentSuite suite = DocumentFactoryProducer.getSuite(factoryType);
 
 
-        if (abstractFactory == null) {
+        if (suite == null) {
             System.out.println("Invalid document suite type. Please enter 'microsoft' or 'opensource'.");
             scanner.close();
             return; // Exit if the factory type is invalid
         }
 
         // 2. Get the specific document type (e.g., word, excel, pdf)
-        DocumentTypeFactory documentTypeFactory = new DocumentTypeFactory(abstractFactory, scanner);
-        documentTypeFactory.processDocumentCreation();
+        DocumentTypeFactory documentTypeFactory = new DocumentTypeFactory(suite);
+        documentTypeFactory.processDocumentCreation(scanner);
 
         scanner.close();
     }
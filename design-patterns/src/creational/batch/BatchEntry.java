@@ -0,0 +1,82 @@
+package creational.batch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * One document of a batch: its type ({@code word}, {@code excel} or {@code pdf}) and file.
+ * <p>
+ * {@link #read(Path)} accepts either a directory, whose files are typed by extension, or
+ * a manifest with one document per line: {@code <type> <path>}, or just {@code <path>}
+ * to type it by extension. Blank lines and lines starting with {@code #} are skipped,
+ * and relative paths are resolved against the manifest's directory.
+ */
+public record BatchEntry(String type, Path path) {
+
+    public static List<BatchEntry> read(Path source) {
+        try {
+            return Files.isDirectory(source) ? readDirectory(source) : readManifest(source);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // null for extensions no document type uses
+    public static String typeOf(Path path) {
+        String name = path.getFileName().toString();
+        String extension = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return switch (extension) {
+            case "docx", "doc" -> "word";
+            case "xlsx", "xls" -> "excel";
+            case "pdf" -> "pdf";
+            default -> null;
+        };
+    }
+
+    private static List<BatchEntry> readDirectory(Path directory) throws IOException {
+        List<BatchEntry> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(Files::isRegularFile).sorted().forEach(file -> {
+                String type = typeOf(file);
+                if (type != null) {
+                    entries.add(new BatchEntry(type, file));
+                }
+            });
+        }
+        return entries;
+    }
+
+    private static List<BatchEntry> readManifest(Path manifest) throws IOException {
+        Path base = manifest.toAbsolutePath().getParent();
+        List<BatchEntry> entries = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(manifest)) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int space = line.indexOf(' ');
+            String type;
+            Path path;
+            if (space < 0) {
+                path = base.resolve(line);
+                type = typeOf(path);
+            } else {
+                type = line.substring(0, space).toLowerCase(Locale.ROOT);
+                path = base.resolve(line.substring(space + 1).strip());
+            }
+            if (type == null) {
+                throw new IllegalArgumentException(manifest + ":" + lineNumber + ": unknown document type");
+            }
+            entries.add(new BatchEntry(type, path));
+        }
+        return entries;
+    }
+}
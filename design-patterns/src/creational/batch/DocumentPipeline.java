@@ -0,0 +1,234 @@
+package creational.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Runs items through a fixed sequence of stages, each on its own bounded pool of threads.
+ * <p>
+ * Every stage admits at most {@code parallelism + queueCapacity} items at a time. A
+ * thread handing an item to a full stage blocks, so a slow stage holds back the one
+ * before it and, in the end, {@link #submit(Object)}; memory stays bounded no matter how
+ * many items a batch has. An item whose stage throws skips the remaining stages and is
+ * passed to the error handler, as is one that cannot be handed to the next stage because
+ * its worker was interrupted or the pipeline was closed.
+ * <p>
+ * Usage:
+ * <pre>
+ *   try (DocumentPipeline&lt;Document&gt; pipeline = DocumentPipeline.&lt;Document&gt;newBuilder()
+ *           .addStage("open", Document::open)
+ *           .addStage("save", Document::save)
+ *           .addStage("close", Document::close)
+ *           .build()) {
+ *       for (Document document : documents) {
+ *           pipeline.submit(document);
+ *       }
+ *       pipeline.awaitCompletion();
+ *   }
+ * </pre>
+ */
+public class DocumentPipeline<T> implements AutoCloseable {
+    private final List<Stage<T>> stages;
+    private final BiConsumer<? super T, RuntimeException> errorHandler;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Object idle = new Object();
+    private final long startedAt = System.nanoTime();
+
+    private DocumentPipeline(Builder<T> builder) {
+        this.errorHandler = builder.errorHandler;
+        this.stages = new ArrayList<>();
+        for (int i = 0; i < builder.names.size(); i++) {
+            stages.add(new Stage<>(builder.names.get(i), builder.actions.get(i),
+                    builder.parallelism, builder.queueCapacity));
+        }
+    }
+
+    public static <T> Builder<T> newBuilder() {
+        return new Builder<>();
+    }
+
+    // blocks while the first stage is full
+    public void submit(T item) throws InterruptedException {
+        inFlight.incrementAndGet();
+        try {
+            handOff(0, item);
+        } catch (InterruptedException | RuntimeException e) {
+            finished();
+            throw e;
+        }
+    }
+
+    public void awaitCompletion() throws InterruptedException {
+        synchronized (idle) {
+            while (inFlight.get() > 0) {
+                idle.wait();
+            }
+        }
+    }
+
+    public List<StageMetrics> metrics() {
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        List<StageMetrics> metrics = new ArrayList<>(stages.size());
+        for (Stage<T> stage : stages) {
+            metrics.add(stage.metrics(seconds));
+        }
+        return metrics;
+    }
+
+    // items already admitted are finished first
+    @Override
+    public void close() {
+        for (Stage<T> stage : stages) {
+            stage.executor.shutdown();
+        }
+    }
+
+    private void handOff(int index, T item) throws InterruptedException {
+        Stage<T> stage = stages.get(index);
+        stage.admission.acquire();
+        try {
+            stage.executor.execute(() -> run(index, item));
+        } catch (RuntimeException e) {
+            stage.admission.release();
+            throw e;
+        }
+    }
+
+    private void run(int index, T item) {
+        Stage<T> stage = stages.get(index);
+        boolean passedOn = false;
+        try {
+            long start = System.nanoTime();
+            try {
+                stage.action.accept(item);
+            } catch (RuntimeException e) {
+                stage.failed.increment();
+                errorHandler.accept(item, e);
+                return;
+            }
+            long took = System.nanoTime() - start;
+            stage.completed.increment();
+            stage.busyNanos.add(took);
+            stage.maxNanos.accumulate(took);
+            if (index + 1 < stages.size()) {
+                passedOn = passOn(index + 1, item);
+            }
+        } finally {
+            stage.admission.release();
+            if (!passedOn) {
+                finished();
+            }
+        }
+    }
+
+    // hands the item to the next stage, or to the error handler when that fails
+    private boolean passOn(int index, T item) {
+        Stage<T> next = stages.get(index);
+        RuntimeException failure;
+        try {
+            // blocks this worker while the next stage is full, which is the backpressure
+            handOff(index, item);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = new IllegalStateException("Interrupted before stage " + next.name, e);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        next.failed.increment();
+        errorHandler.accept(item, failure);
+        return false;
+    }
+
+    private void finished() {
+        if (inFlight.decrementAndGet() == 0) {
+            synchronized (idle) {
+                idle.notifyAll();
+            }
+        }
+    }
+
+    private static class Stage<T> {
+        private final String name;
+        private final Consumer<? super T> action;
+        private final int capacity;
+        private final Semaphore admission;
+        private final ExecutorService executor;
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        Stage(String name, Consumer<? super T> action, int parallelism, int queueCapacity) {
+            this.name = name;
+            this.action = action;
+            this.capacity = parallelism + queueCapacity;
+            this.admission = new Semaphore(capacity);
+            AtomicInteger threadCount = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+                Thread thread = new Thread(runnable, "pipeline-" + name + "-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        StageMetrics metrics(double elapsedSeconds) {
+            long done = completed.sum();
+            return new StageMetrics(name, done, failed.sum(), capacity - admission.availablePermits(),
+                    elapsedSeconds > 0 ? done / elapsedSeconds : 0,
+                    done == 0 ? 0 : busyNanos.sum() / done, maxNanos.get());
+        }
+    }
+
+    public record StageMetrics(String name, long completed, long failed, int inFlight, double throughputPerSecond,
+                               long averageNanos, long maxNanos) {
+    }
+
+    public static class Builder<T> {
+        private final List<String> names = new ArrayList<>();
+        private final List<Consumer<? super T>> actions = new ArrayList<>();
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 256;
+        private BiConsumer<? super T, RuntimeException> errorHandler = (item, e) -> { };
+
+        public Builder<T> addStage(String name, Consumer<? super T> action) {
+            names.add(Objects.requireNonNull(name, "name"));
+            actions.add(Objects.requireNonNull(action, "action"));
+            return this;
+        }
+
+        // threads per stage
+        public Builder<T> setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        // items a stage accepts beyond the ones its threads are working on
+        public Builder<T> setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        public Builder<T> setErrorHandler(BiConsumer<? super T, RuntimeException> errorHandler) {
+            this.errorHandler = errorHandler;
+            return this;
+        }
+
+        public DocumentPipeline<T> build() {
+            if (names.isEmpty() || parallelism < 1 || queueCapacity < 0) {
+                throw new IllegalArgumentException("Invalid pipeline: " + names.size() + " stages, parallelism "
+                        + parallelism + ", queue capacity " + queueCapacity);
+            }
+            return new DocumentPipeline<>(this);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package creational.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Format-specific part of document persistence. {@link DocumentStore} owns the channels
+ * and buffers; a serializer only turns content into bytes and back.
+ */
+public interface DocumentSerializer {
+    // file extension without the dot
+    String extension();
+
+    // upper bound of the bytes serialize() writes for this content; a long, as three
+    // bytes per char overflows an int long before a String reaches its own limit
+    long maxSize(String content);
+
+    void serialize(String content, ByteBuffer target);
+
+    String deserialize(ByteBuffer source);
+}
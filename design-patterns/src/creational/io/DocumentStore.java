@@ -0,0 +1,214 @@
+package creational.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Channel handling shared by every document type.
+ * <p>
+ * Saves serialize into a per-thread direct buffer and write it with a single
+ * {@link FileChannel}, so the channel does not have to copy a heap buffer into a
+ * temporary direct one first. A thread keeps its buffer only up to 1 MiB;
+ * a larger document gets a buffer of its own that is dropped afterwards, so one huge
+ * save does not pin its size for the thread's life. Opens
+ * read small files into the same kind of buffer and memory-map files of at least
+ * {@code mapThreshold} bytes. {@link #copy(Path, Path)} uses {@code transferTo}, which
+ * lets the kernel move the data. When saves reach the disk is set by the
+ * {@link FsyncPolicy}.
+ * <p>
+ * Files of at least {@code pagedThreshold} bytes are not read at all when a
+ * {@link StoredDocument} opens them; {@link #openPaged(Path)} hands out a
+ * {@link PagedFile} whose pages are mapped on demand through a bounded {@link PageCache}.
+ */
+public class DocumentStore {
+    // largest direct buffer the JVM reliably hands out
+    private static final int MAX_BUFFER_SIZE = Integer.MAX_VALUE - 8;
+    // largest buffer a thread keeps between documents
+    static final int RETAINED_BUFFER_SIZE = 1 << 20;
+
+    private static volatile DocumentStore defaultStore = new DocumentStore(
+            Path.of(System.getProperty("java.io.tmpdir"), "design-patterns-documents"),
+            FsyncPolicy.NONE, 64, 1 << 20, 64L << 20, 1 << 20, new PageCache(256L << 20));
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final int batchSize;
+    private final long mapThreshold;
+    private final long pagedThreshold;
+    private final int pageSize;
+    private final PageCache pageCache;
+    private final ThreadLocal<ByteBuffer> buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(8192));
+    // saved but not yet forced, BATCHED only
+    private final Set<Path> unsynced = new LinkedHashSet<>();
+
+    // never opens documents lazily
+    public DocumentStore(Path directory, FsyncPolicy fsyncPolicy, int batchSize, long mapThreshold) {
+        this(directory, fsyncPolicy, batchSize, mapThreshold, Long.MAX_VALUE, 1 << 20, new PageCache(0));
+    }
+
+    public DocumentStore(Path directory, FsyncPolicy fsyncPolicy, int batchSize, long mapThreshold,
+                         long pagedThreshold, int pageSize, PageCache pageCache) {
+        this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+        this.batchSize = batchSize;
+        this.mapThreshold = mapThreshold;
+        this.pagedThreshold = pagedThreshold;
+        this.pageSize = pageSize;
+        this.pageCache = pageCache;
+    }
+
+    public static DocumentStore getDefault() {
+        return defaultStore;
+    }
+
+    public static void setDefault(DocumentStore store) {
+        defaultStore = store;
+    }
+
+    public void save(Path path, String content, DocumentSerializer serializer) {
+        ByteBuffer buffer = buffer(serializer.maxSize(content));
+        serializer.serialize(content, buffer);
+        buffer.flip();
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                if (fsyncPolicy == FsyncPolicy.PER_SAVE) {
+                    channel.force(true);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (fsyncPolicy == FsyncPolicy.BATCHED) {
+            boolean full;
+            synchronized (unsynced) {
+                unsynced.add(path);
+                full = unsynced.size() >= batchSize;
+            }
+            if (full) {
+                flush();
+            }
+        }
+    }
+
+    // returns null when the file does not exist yet
+    public String open(Path path, DocumentSerializer serializer) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > MAX_BUFFER_SIZE) {
+                // neither one mapping nor the decoded String could hold it
+                throw new IllegalArgumentException(path + " is too large to read in full: " + size + " bytes.");
+            }
+            if (size >= mapThreshold) {
+                return serializer.deserialize(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            }
+            ByteBuffer buffer = buffer(size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the buffer holds the whole file
+            }
+            return serializer.deserialize(buffer.flip());
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // size of the file, or -1 when it does not exist
+    public long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (NoSuchFileException e) {
+            return -1;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public boolean shouldPage(long size) {
+        return size >= pagedThreshold;
+    }
+
+    public PagedFile openPaged(Path path) {
+        return new PagedFile(path, pageSize, pageCache);
+    }
+
+    public PageCache pageCache() {
+        return pageCache;
+    }
+
+    public void copy(Path source, Path target) {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            for (long position = 0; position < size; ) {
+                position += in.transferTo(position, size - position, out);
+            }
+            if (fsyncPolicy == FsyncPolicy.PER_SAVE) {
+                out.force(true);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // forces every save made since the last flush, BATCHED only
+    public void flush() {
+        Path[] pending;
+        synchronized (unsynced) {
+            pending = unsynced.toArray(new Path[0]);
+            unsynced.clear();
+        }
+        for (Path path : pending) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            } catch (NoSuchFileException e) {
+                // deleted since it was saved
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // the calling thread's direct buffer, grown up to RETAINED_BUFFER_SIZE when too small and
+    // cleared for use; a document needing more gets a one-off buffer instead
+    private ByteBuffer buffer(long capacity) {
+        if (capacity > MAX_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Document of up to " + capacity + " bytes does not fit in a buffer.");
+        }
+        ByteBuffer buffer = buffers.get();
+        if (buffer.capacity() < capacity) {
+            buffer = ByteBuffer.allocateDirect(bufferSize((int) capacity));
+            if (buffer.capacity() <= RETAINED_BUFFER_SIZE) {
+                buffers.set(buffer);
+            }
+        }
+        return buffer.clear().limit((int) capacity);
+    }
+
+    // capacity of the buffer the calling thread keeps
+    int retainedBufferCapacity() {
+        return buffers.get().capacity();
+    }
+
+    // next power of two, or the largest buffer once doubling would overflow
+    static int bufferSize(int capacity) {
+        if (capacity > 1 << 30) {
+            return MAX_BUFFER_SIZE;
+        }
+        return capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    }
+}
@@ -0,0 +1,70 @@
+package creational.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Excel documents: one row per line of content, stored as a row count followed by
+ * length-prefixed UTF-8 rows.
+ */
+public class ExcelSerializer implements DocumentSerializer {
+    private static final int MAGIC = 0x584C5358; // "XLSX"
+
+    @Override
+    public String extension() {
+        return "xlsx";
+    }
+
+    @Override
+    public long maxSize(String content) {
+        long rows = 1;
+        for (int i = 0; i < content.length(); i++) {
+            if (content.charAt(i) == '\n') {
+                rows++;
+            }
+        }
+        return 2 * Integer.BYTES + rows * Integer.BYTES + content.length() * 3L;
+    }
+
+    @Override
+    public void serialize(String content, ByteBuffer target) {
+        int rows = content.isEmpty() ? 0 : 1;
+        for (int i = 0; i < content.length(); i++) {
+            if (content.charAt(i) == '\n') {
+                rows++;
+            }
+        }
+        target.putInt(MAGIC).putInt(rows);
+        // each row is encoded in place and its length filled in afterwards
+        int start = 0;
+        for (int row = 0; row < rows; row++) {
+            int end = content.indexOf('\n', start);
+            if (end < 0) {
+                end = content.length();
+            }
+            int lengthAt = target.position();
+            target.putInt(0);
+            target.putInt(lengthAt, Utf8.encode(content, start, end, target));
+            start = end + 1;
+        }
+    }
+
+    @Override
+    public String deserialize(ByteBuffer source) {
+        if (source.remaining() < 2 * Integer.BYTES || source.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not an Excel document.");
+        }
+        int rows = source.getInt();
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            int length = source.getInt();
+            ByteBuffer row = source.slice(source.position(), length);
+            source.position(source.position() + length);
+            if (i > 0) {
+                content.append('\n');
+            }
+            content.append(StandardCharsets.UTF_8.decode(row));
+        }
+        return content.toString();
+    }
+}
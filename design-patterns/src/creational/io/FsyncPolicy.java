@@ -0,0 +1,13 @@
+package creational.io;
+
+/**
+ * When {@link DocumentStore} forces saved documents to disk.
+ */
+public enum FsyncPolicy {
+    // every save is forced before it returns
+    PER_SAVE,
+    // saves are forced in groups, every batchSize saves or on DocumentStore.flush()
+    BATCHED,
+    // left to the operating system
+    NONE
+}
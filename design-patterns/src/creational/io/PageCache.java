@@ -0,0 +1,100 @@
+package creational.io;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Least-recently-used cache of mapped pages with a byte budget.
+ * <p>
+ * Pages are evicted oldest first as soon as the cached bytes exceed the budget. An
+ * evicted page is only dropped from the cache; the operating system reclaims its memory
+ * once the mapping is garbage collected, so the budget bounds what this cache keeps
+ * reachable rather than resident memory at every instant.
+ * <p>
+ * Pages are keyed by the file on disk, not by the {@link PagedFile} that mapped them,
+ * so every open of the same unchanged file shares them. They are dropped when the last
+ * of those opens is closed, which only visits that file's pages.
+ */
+public class PageCache {
+    private final long byteBudget;
+    private final LinkedHashMap<PageKey, ByteBuffer> pages = new LinkedHashMap<>(64, 0.75f, true);
+    // open count and cached page indexes of every file that has pages or is open
+    private final Map<Object, CachedFile> files = new HashMap<>();
+    private long cachedBytes;
+    private long hits;
+    private long misses;
+
+    public PageCache(long byteBudget) {
+        this.byteBudget = byteBudget;
+    }
+
+    synchronized void open(Object file) {
+        files.computeIfAbsent(file, k -> new CachedFile()).openCount++;
+    }
+
+    synchronized ByteBuffer get(Object file, int index) {
+        ByteBuffer page = pages.get(new PageKey(file, index));
+        if (page != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return page;
+    }
+
+    synchronized void put(Object file, int index, ByteBuffer page) {
+        CachedFile cached = files.get(file);
+        if (cached == null) {
+            // closed while the page was being mapped
+            return;
+        }
+        if (pages.put(new PageKey(file, index), page) == null) {
+            cachedBytes += page.capacity();
+            cached.indexes.add(index);
+        }
+        Iterator<Map.Entry<PageKey, ByteBuffer>> eldest = pages.entrySet().iterator();
+        while (cachedBytes > byteBudget && eldest.hasNext()) {
+            Map.Entry<PageKey, ByteBuffer> entry = eldest.next();
+            cachedBytes -= entry.getValue().capacity();
+            files.get(entry.getKey().file()).indexes.remove(entry.getKey().index());
+            eldest.remove();
+        }
+    }
+
+    // drops the file's pages once no open of it is left
+    synchronized void close(Object file) {
+        CachedFile cached = files.get(file);
+        if (cached == null || --cached.openCount > 0) {
+            return;
+        }
+        for (int index : cached.indexes) {
+            cachedBytes -= pages.remove(new PageKey(file, index)).capacity();
+        }
+        files.remove(file);
+    }
+
+    public synchronized long cachedBytes() {
+        return cachedBytes;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    private record PageKey(Object file, int index) {
+    }
+
+    private static final class CachedFile {
+        final Set<Integer> indexes = new HashSet<>();
+        int openCount;
+    }
+}
@@ -0,0 +1,95 @@
+package creational.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * A large file seen as fixed-size pages that are mapped on first access.
+ * <p>
+ * Opening only reads the file size, so it takes the same time for a kilobyte as for
+ * several gigabytes. {@link #page(int)} maps the requested page and keeps it in the
+ * shared {@link PageCache}, which bounds how many mapped bytes stay reachable. Opens
+ * of the same file share their cached pages as long as its size and modification time
+ * have not changed.
+ */
+public class PagedFile implements AutoCloseable {
+    private final FileChannel channel;
+    private final long size;
+    private final int pageSize;
+    private final PageCache cache;
+    // what the cache keys this file's pages by
+    private final FileIdentity identity;
+    private boolean closed;
+
+    PagedFile(Path path, int pageSize, PageCache cache) {
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.size = channel.size();
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            Object fileKey = attributes.fileKey() != null ? attributes.fileKey() : path.toRealPath();
+            this.identity = new FileIdentity(fileKey, size, attributes.lastModifiedTime(), pageSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.pageSize = pageSize;
+        this.cache = cache;
+        cache.open(identity);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int pageSize() {
+        return pageSize;
+    }
+
+    public int pageCount() {
+        return (int) ((size + pageSize - 1) / pageSize);
+    }
+
+    // read-only view of one page; the last page may be shorter than pageSize
+    public ByteBuffer page(int index) {
+        if (index < 0 || index >= pageCount()) {
+            throw new IndexOutOfBoundsException("Page " + index + " of " + pageCount());
+        }
+        ByteBuffer page = cache.get(identity, index);
+        if (page == null) {
+            long offset = (long) index * pageSize;
+            try {
+                page = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(pageSize, size - offset));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            cache.put(identity, index, page);
+        }
+        return page.asReadOnlyBuffer();
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        cache.close(identity);
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // a rewritten file changes size or modification time and so gets fresh pages
+    private record FileIdentity(Object fileKey, long size, FileTime modified, int pageSize) {
+    }
+}
@@ -0,0 +1,38 @@
+package creational.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * PDF documents: the text between a PDF header and trailer line. Enough to round-trip
+ * content, not a full PDF writer.
+ */
+public class PdfSerializer implements DocumentSerializer {
+    private static final byte[] HEADER = "%PDF-1.7\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRAILER = "\n%%EOF\n".getBytes(StandardCharsets.US_ASCII);
+
+    @Override
+    public String extension() {
+        return "pdf";
+    }
+
+    @Override
+    public long maxSize(String content) {
+        return HEADER.length + content.length() * 3L + TRAILER.length;
+    }
+
+    @Override
+    public void serialize(String content, ByteBuffer target) {
+        Utf8.encode(content, 0, content.length(), target.put(HEADER));
+        target.put(TRAILER);
+    }
+
+    @Override
+    public String deserialize(ByteBuffer source) {
+        int bodyLength = source.remaining() - HEADER.length - TRAILER.length;
+        if (bodyLength < 0 || !source.slice(source.position(), HEADER.length).equals(ByteBuffer.wrap(HEADER))) {
+            throw new IllegalArgumentException("Not a PDF document.");
+        }
+        return StandardCharsets.UTF_8.decode(source.slice(source.position() + HEADER.length, bodyLength)).toString();
+    }
+}
@@ -0,0 +1,124 @@
+package creational.io;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Base class for documents persisted through a {@link DocumentStore}.
+ * <p>
+ * A document keeps its text content and the file it belongs to. Until
+ * {@link #setPath(Path)} is called it has no file and lives in memory only: opening
+ * keeps the current content and saving writes nothing. Subclasses call {@link #load()} from {@code open()}, {@link #store()} from
+ * {@code save()} and {@link #unload()} from {@code close()}, and supply the format
+ * through their {@link DocumentSerializer}.
+ * <p>
+ * Files the store considers large are opened lazily: {@link #load()} returns at once
+ * and the bytes are reached page by page through {@link #page(int)}. The content is
+ * only decoded in full if {@link #getContent()} is called, which puts the whole text on
+ * the heap and so is refused for files a single buffer cannot hold. Saving an untouched
+ * lazy document under a new path copies the file instead of decoding it, also after
+ * {@link #unload()} has released the pages.
+ */
+public abstract class StoredDocument {
+    private final DocumentSerializer serializer;
+    private Path path;
+    private String content = "";
+    // set while the document is open lazily
+    private PagedFile pages;
+    // file the content still has to be decoded from; content stays null until someone asks
+    private Path pagedPath;
+
+    protected StoredDocument(DocumentSerializer serializer) {
+        this.serializer = Objects.requireNonNull(serializer);
+    }
+
+    // null while the document has no file
+    public Path getPath() {
+        return path;
+    }
+
+    public void setPath(Path path) {
+        this.path = path;
+    }
+
+    public String getContent() {
+        if (content == null) {
+            String decoded = DocumentStore.getDefault().open(pagedPath, serializer);
+            content = decoded != null ? decoded : "";
+            pagedPath = null;
+        }
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = Objects.requireNonNull(content);
+        pagedPath = null;
+    }
+
+    public boolean isPaged() {
+        return pages != null;
+    }
+
+    public int pageCount() {
+        return pages != null ? pages.pageCount() : 0;
+    }
+
+    // raw bytes of one page of a lazily opened file
+    public ByteBuffer page(int index) {
+        if (pages == null) {
+            throw new IllegalStateException("Document is not open lazily.");
+        }
+        return pages.page(index);
+    }
+
+    // reads the file, opens it lazily if it is large, or starts empty if it does not exist yet
+    protected void load() {
+        unload();
+        if (path == null) {
+            return;
+        }
+        DocumentStore store = DocumentStore.getDefault();
+        long size = store.sizeOf(path);
+        if (size >= 0 && store.shouldPage(size)) {
+            pages = store.openPaged(path);
+            pagedPath = path;
+            content = null;
+            return;
+        }
+        String stored = size >= 0 ? store.open(path, serializer) : null;
+        pagedPath = null;
+        content = stored != null ? stored : "";
+    }
+
+    protected void store() {
+        if (path == null) {
+            return;
+        }
+        DocumentStore store = DocumentStore.getDefault();
+        if (content == null) {
+            // never decoded, so unchanged: at most a copy to the new location
+            if (!path.equals(pagedPath)) {
+                store.copy(pagedPath, path);
+            }
+            return;
+        }
+        store.save(path, content, serializer);
+    }
+
+    // releases the pages of a lazily opened file; its content can still be decoded or copied
+    protected void unload() {
+        if (pages != null) {
+            pages.close();
+            pages = null;
+        }
+    }
+
+    // forgets path and content so the instance can be reused for another file
+    protected void clear() {
+        unload();
+        path = null;
+        pagedPath = null;
+        content = "";
+    }
+}
@@ -0,0 +1,39 @@
+package creational.io;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes text straight into the target buffer through the calling thread's reused
+ * encoder, instead of the full {@code byte[]} copy {@link String#getBytes} makes first.
+ * Unpaired surrogates become {@code '?'}, as they do with {@code getBytes}.
+ */
+final class Utf8 {
+    private static final ThreadLocal<CharsetEncoder> encoders = ThreadLocal.withInitial(() ->
+            StandardCharsets.UTF_8.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE));
+
+    private Utf8() {
+    }
+
+    // text[start .. end) into the target; returns the number of bytes written
+    static int encode(CharSequence text, int start, int end, ByteBuffer target) {
+        CharsetEncoder encoder = encoders.get().reset();
+        int position = target.position();
+        CoderResult result = encoder.encode(CharBuffer.wrap(text, start, end), target, true);
+        if (result.isUnderflow()) {
+            result = encoder.flush(target);
+        }
+        // with REPLACE the only other outcome is a target too small for the text
+        if (!result.isUnderflow()) {
+            throw new BufferOverflowException();
+        }
+        return target.position() - position;
+    }
+}
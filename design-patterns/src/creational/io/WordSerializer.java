@@ -0,0 +1,34 @@
+package creational.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Word documents: a magic number followed by the UTF-8 text.
+ */
+public class WordSerializer implements DocumentSerializer {
+    private static final int MAGIC = 0x574F5244; // "WORD"
+
+    @Override
+    public String extension() {
+        return "docx";
+    }
+
+    @Override
+    public long maxSize(String content) {
+        return Integer.BYTES + content.length() * 3L;
+    }
+
+    @Override
+    public void serialize(String content, ByteBuffer target) {
+        Utf8.encode(content, 0, content.length(), target.putInt(MAGIC));
+    }
+
+    @Override
+    public String deserialize(ByteBuffer source) {
+        if (source.remaining() < Integer.BYTES || source.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a Word document.");
+        }
+        return StandardCharsets.UTF_8.decode(source).toString();
+    }
+}
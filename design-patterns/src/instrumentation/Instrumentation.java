@@ -0,0 +1,171 @@
+package instrumentation;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of the {@link LatencyRecorder}s behind the instrumented decorators.
+ * <p>
+ * Instrumentation is off unless the JVM is started with
+ * {@code -Dpatterns.instrumentation=true}. The flag is read once, and the {@code wrap}
+ * methods of the decorators return the undecorated object when it is off. Disabled
+ * instrumentation therefore adds no code at all to the hot paths. Hooks that cannot be
+ * wrapped, such as static accessors, keep the recorder in a static final field that is
+ * null when disabled, and the JIT removes the null check.
+ * <p>
+ * Every recorder is registered with the platform MBean server as
+ * {@code patterns:type=Latency,name=<name>}. {@link #startDump(Duration, PrintStream)}
+ * prints all of them periodically; every dump shares one daemon thread. With
+ * instrumentation on, {@code -Dpatterns.instrumentation.dump=<seconds>} starts a dump to
+ * standard error at that interval.
+ */
+public final class Instrumentation {
+    private static final boolean ENABLED = Boolean.getBoolean("patterns.instrumentation");
+    private static final long DUMP_SECONDS = Long.getLong("patterns.instrumentation.dump", 0);
+    private static final Map<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+
+    static {
+        if (ENABLED && DUMP_SECONDS > 0) {
+            startDump(Duration.ofSeconds(DUMP_SECONDS), System.err);
+        }
+    }
+
+    private Instrumentation() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    // the named recorder, created and registered with JMX on first use
+    public static LatencyRecorder recorder(String name) {
+        return recorders.computeIfAbsent(name, Instrumentation::register);
+    }
+
+    // null when instrumentation is disabled
+    public static LatencyRecorder recorderIfEnabled(String name) {
+        return ENABLED ? recorder(name) : null;
+    }
+
+    public static List<LatencySnapshot> snapshots() {
+        List<LatencySnapshot> snapshots = new ArrayList<>();
+        for (LatencyRecorder recorder : recorders.values()) {
+            snapshots.add(recorder.snapshot());
+        }
+        snapshots.sort((a, b) -> a.name().compareTo(b.name()));
+        return snapshots;
+    }
+
+    // prints every recorder at a fixed rate until the returned task is cancelled
+    public static ScheduledFuture<?> startDump(Duration interval, PrintStream out) {
+        long period = interval.toNanos();
+        return Dumper.executor.scheduleAtFixedRate(() -> {
+            for (LatencySnapshot snapshot : snapshots()) {
+                out.println(snapshot.format());
+            }
+        }, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    private static LatencyRecorder register(String name) {
+        LatencyRecorder recorder = new LatencyRecorder(name);
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new RecorderBean(recorder),
+                    new ObjectName("patterns:type=Latency,name=" + ObjectName.quote(name)));
+        } catch (JMException e) {
+            // JMX is only a window on the recorder, which keeps working without it
+        }
+        return recorder;
+    }
+
+    // the one daemon thread behind every dump, started by the first one; cancelled dumps
+    // are dropped from its queue at once
+    private static final class Dumper {
+        static final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "instrumentation-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        static {
+            executor.setRemoveOnCancelPolicy(true);
+        }
+    }
+
+    static final class RecorderBean implements LatencyMXBean {
+        // how long the single attributes keep answering from one snapshot
+        private static final long REUSE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+        private final LatencyRecorder recorder;
+        private LatencySnapshot cached;
+        private long cachedAt;
+
+        RecorderBean(LatencyRecorder recorder) {
+            this.recorder = recorder;
+        }
+
+        @Override
+        public LatencySnapshot getSnapshot() {
+            return recorder.snapshot();
+        }
+
+        @Override
+        public long getCount() {
+            return recent().count();
+        }
+
+        @Override
+        public double getRatePerSecond() {
+            return recent().ratePerSecond();
+        }
+
+        @Override
+        public long getMeanNanos() {
+            return recent().meanNanos();
+        }
+
+        @Override
+        public long getP50Nanos() {
+            return recent().p50Nanos();
+        }
+
+        @Override
+        public long getP90Nanos() {
+            return recent().p90Nanos();
+        }
+
+        @Override
+        public long getP99Nanos() {
+            return recent().p99Nanos();
+        }
+
+        @Override
+        public long getP999Nanos() {
+            return recent().p999Nanos();
+        }
+
+        @Override
+        public long getMaxNanos() {
+            return recent().maxNanos();
+        }
+
+        // one snapshot serves every attribute read within REUSE_NANOS of it
+        private synchronized LatencySnapshot recent() {
+            long now = System.nanoTime();
+            if (cached == null || now - cachedAt > REUSE_NANOS) {
+                cached = recorder.snapshot();
+                cachedAt = now;
+            }
+            return cached;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package instrumentation;
+
+/**
+ * JMX view of one {@link LatencyRecorder}, registered as
+ * {@code patterns:type=Latency,name=<recorder name>}.
+ * <p>
+ * {@code Snapshot} is every value at once as one composite attribute. The single
+ * attributes are read from a snapshot that is reused for a short while, so reading all
+ * of them takes one snapshot and reports consistent values.
+ */
+public interface LatencyMXBean {
+    LatencySnapshot getSnapshot();
+
+    long getCount();
+
+    double getRatePerSecond();
+
+    long getMeanNanos();
+
+    long getP50Nanos();
+
+    long getP90Nanos();
+
+    long getP99Nanos();
+
+    long getP999Nanos();
+
+    long getMaxNanos();
+}
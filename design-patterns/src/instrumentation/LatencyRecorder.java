@@ -0,0 +1,149 @@
+package instrumentation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram in the style of HdrHistogram.
+ * <p>
+ * Values below 128 ns get a bucket each. Above that, every power of two is split into 64
+ * linear sub-buckets, so a recorded value is off by less than 1/64 (about 1.6%) at any
+ * magnitude. Values beyond about 18 minutes go into the last bucket.
+ * <p>
+ * Recording threads are spread over a few stripes by thread id. Each stripe is an
+ * {@link AtomicLongArray}, so a record is an index computation plus one uncontended
+ * {@code getAndIncrement}, with no lock and no allocation. The sum and max of all stripes
+ * share one array, spaced a cache line pair apart so stripes do not false-share.
+ * {@link #snapshot()} adds the stripes up and can run while threads keep recording.
+ * <p>
+ * The rate in a snapshot covers the interval since an earlier snapshot, not the lifetime
+ * of the recorder. That interval moves forward once it is at least a second long, so
+ * snapshots taken in quick succession, such as the attributes of one JMX read, all
+ * report the same rate.
+ */
+public final class LatencyRecorder {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+    private static final int MAX_SHIFT = 34;
+    private static final int BUCKETS = LINEAR_LIMIT + MAX_SHIFT * SUB_BUCKETS;
+    // 128 bytes between the totals of two stripes, covering adjacent-line prefetch
+    private static final int TOTALS_STRIDE = 16;
+    static final long RATE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String name;
+    private final AtomicLongArray[] counts;
+    // stripe s keeps its sum of values at totals[(s + 1) * TOTALS_STRIDE] and its max right after
+    private final AtomicLongArray totals;
+    private final int mask;
+    // count and time the current rate interval started at, and the rate of the last full one
+    private long rateCount;
+    private long rateSince = System.nanoTime();
+    private double rate = Double.NaN;
+
+    LatencyRecorder(String name) {
+        this.name = name;
+        int stripes = Integer.highestOneBit(Math.min(Runtime.getRuntime().availableProcessors(), 8) * 2 - 1);
+        this.mask = stripes - 1;
+        this.counts = new AtomicLongArray[stripes];
+        for (int i = 0; i < stripes; i++) {
+            counts[i] = new AtomicLongArray(BUCKETS);
+        }
+        // a stride of padding before the first stripe and after the last one as well
+        this.totals = new AtomicLongArray((stripes + 2) * TOTALS_STRIDE);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        int stripe = (int) Thread.currentThread().threadId() & mask;
+        counts[stripe].getAndIncrement(bucket(nanos));
+        int sumIndex = (stripe + 1) * TOTALS_STRIDE;
+        totals.getAndAdd(sumIndex, nanos);
+        long max = totals.get(sumIndex + 1);
+        while (nanos > max && !totals.compareAndSet(sumIndex + 1, max, nanos)) {
+            max = totals.get(sumIndex + 1);
+        }
+    }
+
+    // records the time since a System.nanoTime() taken before the operation
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public LatencySnapshot snapshot() {
+        long[] merged = new long[BUCKETS];
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+        for (int s = 0; s < counts.length; s++) {
+            AtomicLongArray stripe = counts[s];
+            for (int b = 0; b < BUCKETS; b++) {
+                long c = stripe.get(b);
+                merged[b] += c;
+                count += c;
+            }
+            int sumIndex = (s + 1) * TOTALS_STRIDE;
+            sum += totals.get(sumIndex);
+            max = Math.max(max, totals.get(sumIndex + 1));
+        }
+        return new LatencySnapshot(name, count, rate(count, System.nanoTime()), count == 0 ? 0 : sum / count,
+                percentile(merged, count, 0.50), percentile(merged, count, 0.90), percentile(merged, count, 0.99),
+                percentile(merged, count, 0.999), max);
+    }
+
+    // operations per second over the last interval of at least RATE_INTERVAL_NANOS between
+    // snapshots; until the first one is complete, over the time since creation
+    synchronized double rate(long count, long now) {
+        long elapsed = now - rateSince;
+        if (elapsed >= RATE_INTERVAL_NANOS) {
+            rate = (count - rateCount) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+            rateCount = count;
+            rateSince = now;
+        } else if (Double.isNaN(rate)) {
+            return elapsed > 0 ? count * (double) TimeUnit.SECONDS.toNanos(1) / elapsed : 0;
+        }
+        return rate;
+    }
+
+    static int bucket(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        if (shift > MAX_SHIFT) {
+            return BUCKETS - 1;
+        }
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    // highest value that falls into the bucket, as HdrHistogram reports it
+    static long highestValue(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int shift = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+        long sub = (bucket - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    private static long percentile(long[] buckets, long count, double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * quantile));
+        long seen = 0;
+        for (int b = 0; b < buckets.length; b++) {
+            seen += buckets[b];
+            if (seen >= rank) {
+                return highestValue(b);
+            }
+        }
+        return highestValue(buckets.length - 1);
+    }
+}
@@ -0,0 +1,20 @@
+package instrumentation;
+
+/**
+ * Point-in-time view of a {@link LatencyRecorder}. Latencies are in nanoseconds and
+ * cover the recorder's whole lifetime; the rate covers only a recent interval, as
+ * described on {@link LatencyRecorder}.
+ */
+public record LatencySnapshot(String name, long count, double ratePerSecond, long meanNanos, long p50Nanos,
+                              long p90Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+
+    public String format() {
+        return String.format("%-28s count=%-10d rate=%10.1f/s mean=%8s p50=%8s p90=%8s p99=%8s p99.9=%8s max=%8s",
+                name, count, ratePerSecond, micros(meanNanos), micros(p50Nanos), micros(p90Nanos), micros(p99Nanos),
+                micros(p999Nanos), micros(maxNanos));
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.2fus", nanos / 1000.0);
+    }
+}
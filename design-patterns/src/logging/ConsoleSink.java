@@ -0,0 +1,14 @@
+package logging;
+
+/**
+ * Writes each record to {@code System.out} on the calling thread, exactly like the
+ * {@code println} calls it replaces. The default sink, so interactive demos print in
+ * order with their prompts.
+ */
+public class ConsoleSink implements LogSink {
+    @Override
+    public void write(Level level, String template, Object arg0, Object arg1) {
+        // looked up per call, so a redirected System.out is honoured
+        System.out.println(Log.format(template, arg0, arg1));
+    }
+}
@@ -0,0 +1,6 @@
+package logging;
+
+// in increasing severity; OFF as the threshold turns every call into a no-op
+public enum Level {
+    DEBUG, INFO, WARN, OFF
+}
@@ -0,0 +1,123 @@
+package logging;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Logging facade used by the pattern classes instead of {@code System.out.println}.
+ * <p>
+ * A call below the current level returns after one comparison, before any formatting
+ * or allocation. A call at or above it passes the template and its arguments to the
+ * current {@link LogSink} unformatted. The sink is a {@link ConsoleSink} unless the JVM
+ * is started with {@code -Dpatterns.log.file=<path>}, which installs a
+ * {@link RingBufferSink} writing to that file. {@code -Dpatterns.log.level} sets the
+ * starting level, in any case; an unknown level is reported and INFO is used instead.
+ * <p>
+ * Usage:
+ * <pre>
+ *   Log.info("Subscriber notified {}", name);
+ * </pre>
+ */
+public final class Log {
+    private static volatile int threshold = parseLevel(System.getProperty("patterns.log.level", "INFO")).ordinal();
+    private static volatile LogSink sink = defaultSink();
+
+    private Log() {
+    }
+
+    public static void setLevel(Level level) {
+        threshold = level.ordinal();
+    }
+
+    public static boolean isEnabled(Level level) {
+        return level.ordinal() >= threshold;
+    }
+
+    // returns the sink that was replaced, which the caller should close
+    public static LogSink setSink(LogSink newSink) {
+        LogSink old = sink;
+        sink = newSink;
+        return old;
+    }
+
+    public static void debug(String message) {
+        log(Level.DEBUG, message, null, null);
+    }
+
+    public static void debug(String template, Object arg) {
+        log(Level.DEBUG, template, arg, null);
+    }
+
+    public static void info(String message) {
+        log(Level.INFO, message, null, null);
+    }
+
+    public static void info(String template, Object arg) {
+        log(Level.INFO, template, arg, null);
+    }
+
+    public static void info(String template, Object arg0, Object arg1) {
+        log(Level.INFO, template, arg0, arg1);
+    }
+
+    public static void warn(String template, Object arg) {
+        log(Level.WARN, template, arg, null);
+    }
+
+    public static void warn(String template, Object arg0, Object arg1) {
+        log(Level.WARN, template, arg0, arg1);
+    }
+
+    public static void flush() {
+        sink.flush();
+    }
+
+    private static void log(Level level, String template, Object arg0, Object arg1) {
+        if (level.ordinal() >= threshold) {
+            sink.write(level, template, arg0, arg1);
+        }
+    }
+
+    // replaces the first two {} with the arguments
+    public static String format(String template, Object arg0, Object arg1) {
+        int first = template.indexOf("{}");
+        if (first < 0) {
+            return template;
+        }
+        StringBuilder text = new StringBuilder(template.length() + 32);
+        text.append(template, 0, first).append(arg0);
+        int second = template.indexOf("{}", first + 2);
+        if (second < 0) {
+            return text.append(template, first + 2, template.length()).toString();
+        }
+        return text.append(template, first + 2, second).append(arg1)
+                .append(template, second + 2, template.length()).toString();
+    }
+
+    // case-insensitive, so -Dpatterns.log.level=debug works
+    static Level parseLevel(String name) {
+        try {
+            return Level.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            // failing here would break class initialization and with it every log call
+            System.err.println("Unknown patterns.log.level " + name + ", using INFO");
+            return Level.INFO;
+        }
+    }
+
+    private static LogSink defaultSink() {
+        String file = System.getProperty("patterns.log.file");
+        if (file == null) {
+            return new ConsoleSink();
+        }
+        try {
+            RingBufferSink fileSink = RingBufferSink.toFile(Path.of(file), 8192);
+            Runtime.getRuntime().addShutdownHook(new Thread(fileSink::close, "log-sink-shutdown"));
+            return fileSink;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
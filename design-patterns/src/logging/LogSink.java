@@ -0,0 +1,19 @@
+package logging;
+
+/**
+ * Where {@link Log} records go. The message is passed as a template with up to two
+ * arguments, and {@code {}} placeholders are only filled in when a sink actually writes,
+ * see {@link Log#format(String, Object, Object)}.
+ */
+public interface LogSink extends AutoCloseable {
+    void write(Level level, String template, Object arg0, Object arg1);
+
+    // returns once every record written so far has reached its destination
+    default void flush() {
+    }
+
+    @Override
+    default void close() {
+        flush();
+    }
+}
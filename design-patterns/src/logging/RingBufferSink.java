@@ -0,0 +1,289 @@
+package logging;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous sink: logging threads put records into a lock-free ring buffer, and one
+ * background thread formats them and writes them to a channel in batches.
+ * <p>
+ * The ring is a bounded multi-producer queue in the style of Vyukov. A producer claims a
+ * slot with one CAS on the tail counter, fills it, and publishes it by advancing the
+ * slot's sequence number. No lock is taken and nothing is allocated, because the record
+ * is stored as a template plus argument references. All formatting and encoding happens
+ * on the writer thread. The writer drains every published slot, encodes the lines into
+ * one direct buffer, and issues a single {@code write} per batch. It sleeps for up to a
+ * millisecond when the ring is empty, so producers never need to wake it.
+ * <p>
+ * When the ring is full, producers wake the writer and yield to it until a slot frees up;
+ * records are never dropped while the sink is open.
+ * <p>
+ * If the channel fails, the writer keeps draining the ring and sends the rest of the
+ * records to standard error, so producers are never left waiting on a dead writer;
+ * {@link #failure()} reports the error. A record whose arguments cannot be formatted is
+ * written with the formatting error instead. Records written after {@link #close()}
+ * are discarded and counted in {@link #droppedCount()}.
+ * <p>
+ * Before it exits, the writer seals the tail counter with a CAS from the last position it
+ * wrote. A producer that claimed a slot first makes the CAS fail, so the writer stays to
+ * write that record; a producer that comes later sees the seal and counts its record as
+ * dropped. A writer that dies of an unexpected error seals the tail as well and counts the
+ * records it claimed but never wrote.
+ */
+public class RingBufferSink implements LogSink {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    // set in the tail once the writer has exited, so no slot can be claimed any more
+    private static final long SEALED = Long.MIN_VALUE;
+
+    private final WritableByteChannel channel;
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final Level[] levels;
+    private final String[] templates;
+    private final Object[] args0;
+    private final Object[] args1;
+    private final String[] threads;
+    private final long[] times;
+    private final AtomicLong tail = new AtomicLong();
+    // read and written by the writer thread only, published through flushed
+    private long head;
+    private final AtomicLong flushed = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean closed;
+    // writer thread only: the channel until it fails, then standard error
+    private WritableByteChannel target;
+    private volatile IOException failure;
+    private final LongAdder dropped = new LongAdder();
+    // threads waiting in flush(), woken after every batch
+    private final Queue<Thread> flushers = new ConcurrentLinkedQueue<>();
+
+    public RingBufferSink(WritableByteChannel channel, int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.channel = channel;
+        this.target = channel;
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.levels = new Level[capacity];
+        this.templates = new String[capacity];
+        this.args0 = new Object[capacity];
+        this.args1 = new Object[capacity];
+        this.threads = new String[capacity];
+        this.times = new long[capacity];
+        this.writer = new Thread(this::drainLoop, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static RingBufferSink toFile(Path file, int capacity) throws IOException {
+        return new RingBufferSink(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND), capacity);
+    }
+
+    @Override
+    public void write(Level level, String template, Object arg0, Object arg1) {
+        if (closed) {
+            dropped.increment();
+            return;
+        }
+        long position;
+        while (true) {
+            position = tail.get();
+            if ((position & SEALED) != 0) {
+                dropped.increment();
+                return;
+            }
+            long available = sequences.get((int) position & mask) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (available < 0) {
+                // full: the writer has not consumed this slot's previous record yet
+                if (closed) {
+                    dropped.increment();
+                    return;
+                }
+                LockSupport.unpark(writer);
+                Thread.yield();
+            }
+        }
+        int slot = (int) position & mask;
+        levels[slot] = level;
+        templates[slot] = template;
+        args0[slot] = arg0;
+        args1[slot] = arg1;
+        threads[slot] = Thread.currentThread().getName();
+        times[slot] = System.currentTimeMillis();
+        sequences.set(slot, position + 1);
+    }
+
+    @Override
+    public void flush() {
+        flush(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    // parks until every record written so far is out, the writer has exited or the timeout
+    // has passed; returns whether the records all went out
+    public boolean flush(long timeout, TimeUnit unit) {
+        long target = tail.get() & ~SEALED;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        Thread current = Thread.currentThread();
+        flushers.add(current);
+        try {
+            LockSupport.unpark(writer);
+            while (flushed.get() < target) {
+                long remaining = deadline - System.nanoTime();
+                if ((tail.get() & SEALED) != 0 || remaining <= 0) {
+                    return false;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            return true;
+        } finally {
+            flushers.remove(current);
+        }
+    }
+
+    // the error that made the sink fall back to standard error, or null while the channel works
+    public IOException failure() {
+        return failure;
+    }
+
+    // records discarded because they were written after close(), or left unwritten by a
+    // writer that died of an unexpected error
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void drainLoop() {
+        try {
+            writeLoop();
+        } finally {
+            // after a normal exit the tail is sealed at head already and nothing is added
+            long end = tail.getAndUpdate(position -> position | SEALED) & ~SEALED;
+            dropped.add(end - head);
+            flushers.forEach(LockSupport::unpark);
+        }
+    }
+
+    private void writeLoop() {
+        ByteBuffer out = ByteBuffer.allocateDirect(64 * 1024);
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        StringBuilder line = new StringBuilder(256);
+        // records arrive in bursts within the same millisecond, so the timestamp is reused
+        long stampMillis = Long.MIN_VALUE;
+        String stamp = "";
+        while (true) {
+            int drained = 0;
+            while (true) {
+                int slot = (int) head & mask;
+                if (sequences.get(slot) != head + 1) {
+                    break;
+                }
+                if (times[slot] != stampMillis) {
+                    stampMillis = times[slot];
+                    stamp = Instant.ofEpochMilli(stampMillis).toString();
+                }
+                line.setLength(0);
+                line.append(stamp).append(' ').append(levels[slot])
+                        .append(" [").append(threads[slot]).append("] ");
+                try {
+                    line.append(Log.format(templates[slot], args0[slot], args1[slot]));
+                } catch (RuntimeException e) {
+                    // an argument's toString() threw; the writer must survive it
+                    line.append(templates[slot]).append(" (formatting failed: ").append(e).append(')');
+                }
+                line.append('\n');
+                templates[slot] = null;
+                args0[slot] = null;
+                args1[slot] = null;
+                // hands the slot back to producers for the next lap
+                sequences.set(slot, head + mask + 1);
+                head++;
+                drained++;
+                encode(line, out, encoder);
+            }
+            if (out.position() > 0) {
+                drain(out);
+            }
+            flushed.set(head);
+            if (drained > 0) {
+                flushers.forEach(LockSupport::unpark);
+            } else {
+                // fails while a producer holds a claimed slot, which then still gets written
+                if (closed && tail.compareAndSet(head, head | SEALED)) {
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void encode(CharSequence line, ByteBuffer out, CharsetEncoder encoder) {
+        CharBuffer chars = CharBuffer.wrap(line);
+        while (true) {
+            CoderResult result = encoder.encode(chars, out, true);
+            if (!result.isOverflow()) {
+                break;
+            }
+            drain(out);
+        }
+        encoder.reset();
+    }
+
+    private void drain(ByteBuffer out) {
+        out.flip();
+        while (out.hasRemaining()) {
+            try {
+                target.write(out);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        out.clear();
+    }
+
+    // the channel is unusable, so the unwritten bytes and every later record go to standard error
+    private void fail(IOException e) {
+        failure = e;
+        target = Channels.newChannel(System.err);
+        System.err.println("log-writer: writing the log failed, falling back to standard error: " + e);
+    }
+}
@@ -1,5 +1,7 @@
 package structural.adapter;
 
+import logging.Log;
+
 //adapter class
 public class AdapterCharger implements AppleCharger{
     AndriodCharger andriodCharger;
@@ -11,6 +13,6 @@ public class AdapterCharger implements AppleCharger{
     @Override
     public void chargePhone() {
         andriodCharger.chargeAndriodPhone();
-        System.out.println("Charging phone with AdapterCharger");
+        Log.info("Charging phone with AdapterCharger");
     }
 }
@@ -0,0 +1,6 @@
+package structural.adapter;
+
+// scheduling lanes, served strictly in this order
+public enum ChargePriority {
+    HIGH, NORMAL, LOW
+}
@@ -1,8 +1,10 @@
 package structural.adapter;
 
+import logging.Log;
+
 public class ChargerSRT implements AndriodCharger {
     @Override
     public void chargeAndriodPhone() {
-        System.out.println("Charging Andriod phone with ChargerSRT");
+        Log.info("Charging Andriod phone with ChargerSRT");
     }
 }
@@ -0,0 +1,314 @@
+package structural.adapter;
+
+import instrumentation.Instrumentation;
+import instrumentation.LatencyRecorder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Shares a fixed set of {@link AppleCharger}s among any number of devices.
+ * <p>
+ * Every charger has a worker thread of its own, because a charger can only charge one
+ * phone at a time, and a deque per {@link ChargePriority}. {@link #charge(String, ChargePriority)}
+ * picks the less loaded of two random chargers, queues the session there and returns a
+ * {@link CompletableFuture} at once. A worker serves the highest non-empty priority
+ * first. It takes the oldest session from its own deque, and if that lane is empty it
+ * steals the newest session of the same priority from another charger. A slow charger
+ * therefore never holds back work that an idle one could do, and a high-priority
+ * session never waits behind low-priority ones anywhere.
+ * <p>
+ * Idle workers park until they are woken: {@code charge} wakes the target and one idle
+ * worker that may steal, and a worker that takes a session while others are still queued
+ * wakes one more, so a backlog spreads over every idle charger without any polling.
+ * <p>
+ * Android chargers join through {@link Builder#addAndroidCharger(AndriodCharger)}, which wraps
+ * them in an {@link AdapterCharger}. {@link #metrics()} reports per-charger utilization
+ * and queue wait times.
+ * <p>
+ * {@link #close()} lets the workers finish what is queued. A session that races with it
+ * is either charged or failed with an {@link IllegalStateException}; no future is left
+ * pending.
+ */
+public class ChargerScheduler implements AutoCloseable {
+    private static final ChargePriority[] PRIORITIES = ChargePriority.values();
+    // null when instrumentation is disabled
+    private static final LatencyRecorder queueWaitLatency = Instrumentation.recorderIfEnabled("scheduler.queueWait");
+
+    private final Worker[] workers;
+    private final long startedAt = System.nanoTime();
+    private volatile boolean closed;
+
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    private ChargerScheduler(Builder builder) {
+        workers = new Worker[builder.chargers.size()];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(i, builder.names.get(i), builder.chargers.get(i));
+        }
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public CompletableFuture<ChargeSession> charge(String deviceId, ChargePriority priority) {
+        if (closed) {
+            throw new IllegalStateException("Scheduler is closed.");
+        }
+        Session session = new Session(deviceId, priority);
+        Worker target = leastLoadedOfTwo();
+        ConcurrentLinkedDeque<Session> lane = target.lanes[priority.ordinal()];
+        lane.offerLast(session);
+        target.queued.incrementAndGet();
+        target.wake();
+        // close() may have drained the lanes between the check above and the offer; whoever
+        // removes the session first owns it, so it is never charged and failed both
+        if (closed && lane.removeLastOccurrence(session)) {
+            target.queued.decrementAndGet();
+            throw new IllegalStateException("Scheduler is closed.");
+        }
+        // the target may be busy for a while, so give an idle charger the chance to steal it
+        wakeIdle(target);
+        return session.future;
+    }
+
+    public Metrics metrics() {
+        double elapsed = System.nanoTime() - startedAt;
+        List<ChargerMetrics> chargers = new ArrayList<>(workers.length);
+        long sessions = 0;
+        for (Worker worker : workers) {
+            long done = worker.sessions.sum();
+            sessions += done;
+            chargers.add(new ChargerMetrics(worker.name, done, worker.stolen.sum(), worker.failed.sum(),
+                    worker.queued.get(), elapsed > 0 ? worker.busyNanos.sum() / elapsed : 0));
+        }
+        return new Metrics(sessions, sessions == 0 ? 0 : waitNanos.sum() / sessions, maxWaitNanos.get(), chargers);
+    }
+
+    // queued sessions are still charged; returns once every worker has stopped. When
+    // interrupted it stops waiting, fails whatever is still queued and keeps the interrupt
+    @Override
+    public void close() {
+        closed = true;
+        for (Worker worker : workers) {
+            worker.wake();
+        }
+        try {
+            for (Worker worker : workers) {
+                worker.thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failQueued();
+    }
+
+    // sessions offered after the workers saw the lanes empty; polling hands each one to
+    // exactly one thread, so this is safe while workers are still running
+    private void failQueued() {
+        for (Worker worker : workers) {
+            for (ConcurrentLinkedDeque<Session> lane : worker.lanes) {
+                for (Session session = lane.pollFirst(); session != null; session = lane.pollFirst()) {
+                    worker.queued.decrementAndGet();
+                    session.future.completeExceptionally(new IllegalStateException("Scheduler is closed."));
+                }
+            }
+        }
+    }
+
+    // wakes the first idle worker other than the given one, if there is any
+    private void wakeIdle(Worker except) {
+        for (Worker worker : workers) {
+            if (worker != except && worker.idle) {
+                worker.wake();
+                return;
+            }
+        }
+    }
+
+    private boolean anyQueued() {
+        for (Worker worker : workers) {
+            if (worker.queued.get() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Worker leastLoadedOfTwo() {
+        if (workers.length == 1) {
+            return workers[0];
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Worker a = workers[random.nextInt(workers.length)];
+        Worker b = workers[random.nextInt(workers.length)];
+        return a.queued.get() <= b.queued.get() ? a : b;
+    }
+
+    private static class Session {
+        private final String deviceId;
+        private final ChargePriority priority;
+        private final long queuedAt = System.nanoTime();
+        private final CompletableFuture<ChargeSession> future = new CompletableFuture<>();
+
+        Session(String deviceId, ChargePriority priority) {
+            this.deviceId = deviceId;
+            this.priority = priority;
+        }
+    }
+
+    private class Worker implements Runnable {
+        private final int index;
+        private final String name;
+        private final AppleCharger charger;
+        private final Thread thread;
+        @SuppressWarnings("unchecked")
+        private final ConcurrentLinkedDeque<Session>[] lanes =
+                (ConcurrentLinkedDeque<Session>[]) new ConcurrentLinkedDeque<?>[PRIORITIES.length];
+        private final AtomicInteger queued = new AtomicInteger();
+        private volatile boolean idle;
+
+        private final LongAdder sessions = new LongAdder();
+        private final LongAdder stolen = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+
+        Worker(int index, String name, AppleCharger charger) {
+            this.index = index;
+            this.name = name;
+            this.charger = charger;
+            for (int i = 0; i < lanes.length; i++) {
+                lanes[i] = new ConcurrentLinkedDeque<>();
+            }
+            this.thread = new Thread(this, "charger-" + name);
+            thread.setDaemon(true);
+        }
+
+        void wake() {
+            LockSupport.unpark(thread);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Session session = next();
+                if (session == null) {
+                    if (closed) {
+                        return;
+                    }
+                    // idle is set before the second look, so a session offered in between is
+                    // either seen here or its charge() sees idle and wakes a worker
+                    idle = true;
+                    session = next();
+                    if (session == null && !closed) {
+                        LockSupport.park(this);
+                    }
+                    idle = false;
+                    if (session == null) {
+                        continue;
+                    }
+                }
+                if (anyQueued()) {
+                    wakeIdle(this);
+                }
+                charge(session);
+            }
+        }
+
+        // own lane before stealing, but never a lower priority before a higher one anywhere
+        private Session next() {
+            for (ChargePriority priority : PRIORITIES) {
+                Session session = lanes[priority.ordinal()].pollFirst();
+                if (session != null) {
+                    queued.decrementAndGet();
+                    return session;
+                }
+                for (int offset = 1; offset < workers.length; offset++) {
+                    Worker victim = workers[(index + offset) % workers.length];
+                    session = victim.lanes[priority.ordinal()].pollLast();
+                    if (session != null) {
+                        victim.queued.decrementAndGet();
+                        stolen.increment();
+                        return session;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private void charge(Session session) {
+            if (session.future.isDone()) {
+                // cancelled while it was queued
+                return;
+            }
+            long start = System.nanoTime();
+            long waited = start - session.queuedAt;
+            waitNanos.add(waited);
+            maxWaitNanos.accumulate(waited);
+            if (queueWaitLatency != null) {
+                queueWaitLatency.record(waited);
+            }
+            try {
+                charger.chargePhone();
+                long took = System.nanoTime() - start;
+                busyNanos.add(took);
+                sessions.increment();
+                session.future.complete(new ChargeSession(session.deviceId, session.priority, name, waited, took));
+            } catch (Throwable e) {
+                // an Error from the charger fails its session too, and the worker keeps serving
+                busyNanos.add(System.nanoTime() - start);
+                failed.increment();
+                session.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    // one finished charge: where it ran, how long it queued and how long it charged
+    public record ChargeSession(String deviceId, ChargePriority priority, String charger, long queueWaitNanos,
+                                long chargeNanos) {
+    }
+
+    public record ChargerMetrics(String name, long sessions, long stolen, long failed, int queued,
+                                 double utilization) {
+    }
+
+    public record Metrics(long sessions, long averageWaitNanos, long maxWaitNanos, List<ChargerMetrics> chargers) {
+    }
+
+    public static class Builder {
+        private final List<String> names = new ArrayList<>();
+        private final List<AppleCharger> chargers = new ArrayList<>();
+
+        public Builder addAppleCharger(AppleCharger charger) {
+            names.add("apple-" + chargers.size());
+            chargers.add(charger);
+            return this;
+        }
+
+        // Android chargers serve iPhones through the adapter
+        public Builder addAndroidCharger(AndriodCharger charger) {
+            names.add("android-" + chargers.size());
+            chargers.add(new AdapterCharger(charger));
+            return this;
+        }
+
+        public ChargerScheduler build() {
+            if (chargers.isEmpty()) {
+                throw new IllegalArgumentException("A scheduler needs at least one charger.");
+            }
+            return new ChargerScheduler(this);
+        }
+    }
+}
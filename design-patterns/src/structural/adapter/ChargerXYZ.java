@@ -1,8 +1,10 @@
 package structural.adapter;
 
+import logging.Log;
+
 public class ChargerXYZ implements AppleCharger {
     @Override
     public void chargePhone() {
-        System.out.println("Charging phone with ChargerXYZ");
+        Log.info("Charging phone with ChargerXYZ");
     }
 }
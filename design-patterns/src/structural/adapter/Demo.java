@@ -27,7 +27,7 @@ public class Demo {
         System.out.println("Program started");
 
         AndriodCharger andriodCharger = new ChargerSRT();
-        AppleCharger appleCharger = new AdapterCharger(andriodCharger);
+        AppleCharger appleCharger = InstrumentedCharger.wrap(new AdapterCharger(andriodCharger));
 
         Iphone14 iphone14 = new Iphone14(appleCharger);
         iphone14.chargeIphone();
@@ -0,0 +1,30 @@
+package structural.adapter;
+
+import instrumentation.Instrumentation;
+import instrumentation.LatencyRecorder;
+
+//decorator that times chargePhone() of any AppleCharger, adapters included
+public class InstrumentedCharger implements AppleCharger {
+    private final AppleCharger delegate;
+    private final LatencyRecorder chargeLatency;
+
+    private InstrumentedCharger(AppleCharger delegate) {
+        this.delegate = delegate;
+        this.chargeLatency = Instrumentation.recorder("charger.chargePhone." + delegate.getClass().getSimpleName());
+    }
+
+    // the charger itself while instrumentation is disabled
+    public static AppleCharger wrap(AppleCharger charger) {
+        return Instrumentation.isEnabled() ? new InstrumentedCharger(charger) : charger;
+    }
+
+    @Override
+    public void chargePhone() {
+        long start = System.nanoTime();
+        try {
+            delegate.chargePhone();
+        } finally {
+            chargeLatency.recordSince(start);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package structural.adapter;
 
+import logging.Log;
+
 public class Iphone14 {
     private AppleCharger appleCharger;
 
@@ -8,7 +10,7 @@ public class Iphone14 {
     }
 
     public void chargeIphone() {
-        System.out.println("Charging Iphone 14");
+        Log.info("Charging Iphone 14");
         appleCharger.chargePhone();
     }
 }
@@ -0,0 +1,34 @@
+package structural.adapter;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+//stand-in for real hardware: each charge blocks for latency plus up to jitter, on either interface
+public class SimulatedCharger implements AppleCharger, AndriodCharger {
+    private final long latencyNanos;
+    private final long jitterNanos;
+
+    public SimulatedCharger(Duration latency, Duration jitter) {
+        this.latencyNanos = latency.toNanos();
+        this.jitterNanos = jitter.toNanos();
+    }
+
+    @Override
+    public void chargePhone() {
+        simulate();
+    }
+
+    @Override
+    public void chargeAndriodPhone() {
+        simulate();
+    }
+
+    private void simulate() {
+        long nanos = latencyNanos + (jitterNanos > 0 ? ThreadLocalRandom.current().nextLong(jitterNanos) : 0);
+        long deadline = System.nanoTime() + nanos;
+        for (long left = nanos; left > 0; left = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(left);
+        }
+    }
+}
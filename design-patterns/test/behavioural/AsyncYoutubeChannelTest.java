@@ -0,0 +1,62 @@
+package behavioural;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncYoutubeChannelTest {
+
+    @Test
+    void deliveryCompletesOnceEveryObserverWasNotified() throws InterruptedException {
+        try (AsyncYoutubeChannel channel = new AsyncYoutubeChannel(4, OverflowPolicy.BLOCK)) {
+            AtomicInteger count = new AtomicInteger();
+            channel.subscribe(count::incrementAndGet);
+            channel.subscribe(count::incrementAndGet);
+            Delivery delivery = channel.publish();
+            assertTrue(delivery.await(5, TimeUnit.SECONDS));
+            assertEquals(2, delivery.deliveredCount());
+            assertEquals(2, count.get());
+        }
+    }
+
+    @Test
+    void runtimeExceptionCountsAsFailedAndKeepsTheMailbox() throws InterruptedException {
+        try (AsyncYoutubeChannel channel = new AsyncYoutubeChannel(4, OverflowPolicy.BLOCK)) {
+            AtomicInteger calls = new AtomicInteger();
+            channel.subscribe(() -> {
+                if (calls.incrementAndGet() == 1) {
+                    throw new IllegalStateException("first call fails");
+                }
+            });
+            Delivery first = channel.publish();
+            Delivery second = channel.publish();
+            assertTrue(first.await(5, TimeUnit.SECONDS));
+            assertTrue(second.await(5, TimeUnit.SECONDS));
+            assertEquals(1, first.failedCount());
+            assertEquals(1, second.deliveredCount());
+        }
+    }
+
+    @Test
+    void errorFailsTheDeliveryAndDropsLaterOnes() throws InterruptedException {
+        try (AsyncYoutubeChannel channel = new AsyncYoutubeChannel(1, OverflowPolicy.BLOCK)) {
+            channel.subscribe(() -> {
+                throw new AssertionError("observer bug");
+            });
+            Delivery failed = channel.publish();
+            assertTrue(failed.await(5, TimeUnit.SECONDS));
+            assertEquals(1, failed.failedCount());
+
+            // the mailbox thread is gone; a BLOCK mailbox must not leave publishers waiting
+            for (int i = 0; i < 3; i++) {
+                Delivery later = channel.publish();
+                assertTrue(later.await(5, TimeUnit.SECONDS));
+                assertEquals(1, later.droppedCount());
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package behavioural;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchingChannelTest {
+
+    @Test
+    void concurrentPublishersNeverExceedTheBatchSize() throws Exception {
+        int maxBatchSize = 16;
+        int threads = 8;
+        int perThread = 10_000;
+        List<Integer> sizes = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger events = new AtomicInteger();
+        try (BatchingChannel<Integer> channel = new BatchingChannel<>(maxBatchSize, Duration.ZERO)) {
+            channel.subscribe(batch -> {
+                sizes.add(batch.size());
+                events.addAndGet(batch.size());
+            });
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        channel.publish(i);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> task : tasks) {
+                task.get(1, TimeUnit.MINUTES);
+            }
+            executor.shutdown();
+        }
+        assertEquals(threads * perThread, events.get());
+        assertTrue(sizes.stream().allMatch(size -> size <= maxBatchSize), () -> "sizes: " + sizes);
+    }
+
+    @Test
+    void batchesArriveInPublishOrder() {
+        List<Integer> seen = new ArrayList<>();
+        try (BatchingChannel<Integer> channel = new BatchingChannel<>(3, Duration.ZERO)) {
+            channel.subscribe(seen::addAll);
+            for (int i = 0; i < 10; i++) {
+                channel.publish(i);
+            }
+        }
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), seen);
+    }
+
+    @Test
+    void windowFlushesAPartialBatch() throws InterruptedException {
+        CountDownLatch delivered = new CountDownLatch(1);
+        try (BatchingChannel<String> channel = new BatchingChannel<>(100, Duration.ofMillis(10))) {
+            channel.subscribe(batch -> delivered.countDown());
+            channel.publish("a");
+            assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void publishAfterCloseIsRejected() {
+        BatchingChannel<String> channel = new BatchingChannel<>(10, Duration.ofMillis(50));
+        List<String> seen = new ArrayList<>();
+        channel.subscribe(seen::addAll);
+        channel.publish("kept");
+        channel.close();
+        assertEquals(List.of("kept"), seen);
+        assertThrows(IllegalStateException.class, () -> channel.publish("late"));
+    }
+
+    @Test
+    void forwardingAdaptersOverTheSameSubjectAreEqual() {
+        YoutubeChannel downstream = new YoutubeChannel();
+        AtomicInteger notified = new AtomicInteger();
+        downstream.subscribe(notified::incrementAndGet);
+        try (BatchingChannel<String> channel = new BatchingChannel<>(2, Duration.ZERO)) {
+            channel.subscribe(ObserverAdapter.forwarding(downstream));
+            channel.publish("a");
+            channel.publish("b");
+            channel.unsubscribe(ObserverAdapter.forwarding(downstream));
+            channel.publish("c");
+            channel.publish("d");
+        }
+        assertEquals(1, notified.get());
+    }
+
+    @Test
+    void aFailingObserverDoesNotStopTheOthers() throws InterruptedException {
+        List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch windowed = new CountDownLatch(1);
+        try (BatchingChannel<Integer> channel = new BatchingChannel<>(2, Duration.ofMillis(10))) {
+            channel.subscribe(batch -> {
+                throw new IllegalStateException("observer broke");
+            });
+            channel.subscribe(batch -> {
+                seen.addAll(batch);
+                if (batch.contains(3)) {
+                    windowed.countDown();
+                }
+            });
+            channel.publish(1);
+            channel.publish(2);
+            // a partial batch goes out on the timer thread
+            channel.publish(3);
+            assertTrue(windowed.await(5, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of(1, 2, 3), seen);
+    }
+
+    // a batch cut from inside onBatch waits until every observer has the current one
+    @Test
+    void batchesPublishedFromAnObserverKeepPublishOrder() {
+        List<String> log = new ArrayList<>();
+        try (BatchingChannel<Integer> channel = new BatchingChannel<>(1, Duration.ZERO)) {
+            channel.subscribe(batch -> {
+                log.add("first " + batch);
+                if (batch.get(0) < 3) {
+                    channel.publish(batch.get(0) + 1);
+                }
+            });
+            channel.subscribe(batch -> log.add("second " + batch));
+            channel.publish(1);
+        }
+        assertEquals(List.of("first [1]", "second [1]", "first [2]", "second [2]", "first [3]", "second [3]"), log);
+    }
+}
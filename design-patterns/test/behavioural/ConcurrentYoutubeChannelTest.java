@@ -0,0 +1,112 @@
+package behavioural;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentYoutubeChannelTest {
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 20_000;
+    private static final int BASE_SUBSCRIBERS = 100;
+
+    @Test
+    void notifiesEverySubscriberInRegistrationOrder() {
+        ConcurrentYoutubeChannel channel = new ConcurrentYoutubeChannel();
+        List<Integer> calls = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            int id = i;
+            channel.subscribe(() -> calls.add(id));
+        }
+        channel.notifyObservers();
+        assertEquals(List.of(0, 1, 2), calls);
+    }
+
+    @Test
+    void unsubscribeRemovesOnlyTheFirstMatch() {
+        ConcurrentYoutubeChannel channel = new ConcurrentYoutubeChannel();
+        AtomicLong count = new AtomicLong();
+        Observer observer = count::incrementAndGet;
+        channel.subscribe(observer);
+        channel.subscribe(observer);
+        channel.unsubscribe(observer);
+        channel.unsubscribe(() -> { });
+        channel.notifyObservers();
+        assertEquals(1, channel.subscriberCount());
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    void observerMayUnsubscribeItselfWhileBeingNotified() {
+        ConcurrentYoutubeChannel channel = new ConcurrentYoutubeChannel();
+        AtomicLong count = new AtomicLong();
+        Observer[] self = new Observer[1];
+        self[0] = () -> {
+            count.incrementAndGet();
+            channel.unsubscribe(self[0]);
+        };
+        channel.subscribe(self[0]);
+        channel.subscribe(count::incrementAndGet);
+        channel.notifyObservers();
+        channel.notifyObservers();
+        assertEquals(3, count.get());
+        assertEquals(1, channel.subscriberCount());
+    }
+
+    // publishers and churning subscribers share the channel; nothing may throw or be lost
+    @Test
+    void survivesConcurrentSubscribeUnsubscribeAndNotify() throws Exception {
+        ConcurrentYoutubeChannel channel = new ConcurrentYoutubeChannel();
+        AtomicLong baseNotifications = new AtomicLong();
+        for (int i = 0; i < BASE_SUBSCRIBERS; i++) {
+            channel.subscribe(baseNotifications::incrementAndGet);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Future<?>> tasks = new ArrayList<>();
+        int publishers = 0;
+        for (int t = 0; t < THREADS; t++) {
+            boolean publisher = t % 2 == 0;
+            publishers += publisher ? 1 : 0;
+            tasks.add(executor.submit(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        if (publisher) {
+                            channel.notifyObservers();
+                        } else {
+                            Observer churn = () -> { };
+                            channel.subscribe(churn);
+                            channel.unsubscribe(churn);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> task : tasks) {
+            task.get(5, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertTrue(failures.isEmpty(), () -> "failures: " + failures);
+        assertEquals(BASE_SUBSCRIBERS, channel.subscriberCount());
+        // churn never touches the base subscribers, so every publish reaches all of them
+        assertEquals((long) publishers * OPERATIONS_PER_THREAD * BASE_SUBSCRIBERS, baseNotifications.get());
+    }
+}
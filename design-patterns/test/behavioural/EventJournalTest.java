@@ -0,0 +1,153 @@
+package behavioural;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EventJournalTest {
+    // 16-byte header + 16-byte payload: two records per 64-byte segment
+    private static final int SEGMENT = 64;
+    private static final Duration FOREVER = Duration.ofDays(365);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysAppendedRecordsInOrder() throws IOException {
+        try (EventJournal journal = new EventJournal(directory, SEGMENT, Long.MAX_VALUE, FOREVER)) {
+            long first = journal.append(payload(0));
+            long second = journal.append(payload(1));
+            long third = journal.append(payload(2));
+            assertEquals(0, first);
+            assertEquals(32, second);
+            // does not fit behind the second record, so it starts the next segment
+            assertEquals(64, third);
+            assertEquals(List.of("record-000000000", "record-000000001", "record-000000002"), read(journal, 0));
+            assertEquals(List.of("record-000000002"), read(journal, third));
+        }
+    }
+
+    @Test
+    void reopeningContinuesAfterTheLastRecord() throws IOException {
+        try (EventJournal journal = new EventJournal(directory, SEGMENT, Long.MAX_VALUE, FOREVER)) {
+            for (int i = 0; i < 3; i++) {
+                journal.append(payload(i));
+            }
+        }
+        try (EventJournal journal = new EventJournal(directory, SEGMENT, Long.MAX_VALUE, FOREVER)) {
+            assertEquals(96, journal.endOffset());
+            assertEquals(96, journal.append(payload(3)));
+            assertEquals(4, read(journal, 0).size());
+        }
+    }
+
+    @Test
+    void recoveryStopsAtTheFirstRecordWithABadChecksum() throws IOException {
+        long corrupted;
+        try (EventJournal journal = new EventJournal(directory, SEGMENT, Long.MAX_VALUE, FOREVER)) {
+            journal.append(payload(0));
+            journal.append(payload(1));
+            corrupted = journal.append(payload(2));
+            journal.append(payload(3));
+        }
+        // flip one payload byte of the third record, as a torn write would leave it
+        Path segment = directory.resolve(String.format("%020d.journal", 64));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer single = ByteBuffer.allocate(1);
+            channel.read(single, 16);
+            single.put(0, (byte) (single.get(0) ^ 0x7f)).rewind();
+            channel.write(single, 16);
+        }
+
+        try (EventJournal journal = new EventJournal(directory, SEGMENT, Long.MAX_VALUE, FOREVER)) {
+            assertEquals(corrupted, journal.endOffset());
+            assertEquals(List.of("record-000000000", "record-000000001"), read(journal, 0));
+            // the next append overwrites the damaged record
+            assertEquals(corrupted, journal.append(payload(9)));
+            assertEquals(List.of("record-000000000", "record-000000001", "record-000000009"), read(journal, 0));
+        }
+    }
+
+    @Test
+    void sizeRetentionDropsTheOldestSealedSegments() throws IOException {
+        try (EventJournal journal = new EventJournal(directory, SEGMENT, 2 * SEGMENT, FOREVER)) {
+            for (int i = 0; i < 10; i++) {
+                journal.append(payload(i));
+            }
+            assertEquals(2, segmentFiles());
+            assertEquals(3 * SEGMENT, journal.firstOffset());
+            // offsets that were removed resume at the oldest record still kept
+            assertEquals(List.of("record-000000006", "record-000000007", "record-000000008", "record-000000009"),
+                    read(journal, 0));
+        }
+    }
+
+    @Test
+    void ageRetentionRunsEvenWhenTheJournalStopsRolling() throws Exception {
+        try (EventJournal journal = new EventJournal(directory, SEGMENT, Long.MAX_VALUE, Duration.ofMillis(50))) {
+            journal.append(payload(0));
+            journal.append(payload(1));
+            journal.append(payload(2));
+            assertEquals(2, segmentFiles());
+            Thread.sleep(120);
+            // fits in the active segment, so nothing rolls
+            journal.append(payload(3));
+            assertEquals(1, segmentFiles());
+            assertEquals(SEGMENT, journal.firstOffset());
+            assertEquals(List.of("record-000000002", "record-000000003"), read(journal, 0));
+        }
+    }
+
+    @Test
+    void retentionIsEnforcedOnOpen() throws IOException {
+        try (EventJournal journal = new EventJournal(directory, SEGMENT, Long.MAX_VALUE, FOREVER)) {
+            for (int i = 0; i < 10; i++) {
+                journal.append(payload(i));
+            }
+        }
+        assertEquals(5, segmentFiles());
+        try (EventJournal journal = new EventJournal(directory, SEGMENT, 2 * SEGMENT, FOREVER)) {
+            assertEquals(2, segmentFiles());
+            assertEquals(3 * SEGMENT, journal.firstOffset());
+        }
+    }
+
+    @Test
+    void appendAfterCloseIsRejected() throws IOException {
+        EventJournal journal = new EventJournal(directory, SEGMENT, Long.MAX_VALUE, FOREVER);
+        journal.append(payload(0));
+        journal.close();
+        journal.close();
+        assertThrows(IllegalStateException.class, () -> journal.append(payload(1)));
+    }
+
+    private static byte[] payload(int i) {
+        return String.format("record-%09d", i).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static List<String> read(EventJournal journal, long from) {
+        List<String> records = new ArrayList<>();
+        journal.replay(from, (offset, timestamp, payload) -> records.add(StandardCharsets.US_ASCII.decode(payload).toString()));
+        return records;
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".journal")).count();
+        }
+    }
+}
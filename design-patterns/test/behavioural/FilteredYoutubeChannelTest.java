@@ -0,0 +1,88 @@
+package behavioural;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FilteredYoutubeChannelTest {
+
+    @Test
+    void routesByTopicTagPriorityAndWildcard() {
+        FilteredYoutubeChannel channel = new FilteredYoutubeChannel();
+        List<String> seen = new ArrayList<>();
+        channel.subscribe(recorder(seen, "music"), EventFilter.any().withTopic("music"));
+        channel.subscribe(recorder(seen, "loud music"), EventFilter.any().withTopic("music").withMinPriority(5));
+        channel.subscribe(recorder(seen, "live"), EventFilter.any().withAnyTag("live", "premiere"));
+        channel.subscribe(recorder(seen, "urgent"), EventFilter.any().withMinPriority(5));
+        channel.subscribe(recorder(seen, "important"), EventFilter.any().withMinPriority(2));
+        channel.subscribe(recorder(seen, "all"));
+
+        channel.publish(new ChannelEvent("music", Set.of(), 1));
+        assertEquals(List.of("music", "all"), drain(seen));
+
+        channel.publish(new ChannelEvent("music", Set.of("live"), 5));
+        assertEquals(Set.of("music", "loud music", "live", "urgent", "important", "all"), Set.copyOf(drain(seen)));
+
+        channel.publish(new ChannelEvent("news", Set.of("premiere"), 3));
+        assertEquals(Set.of("live", "important", "all"), Set.copyOf(drain(seen)));
+
+        channel.publish(new ChannelEvent(null, Set.of(), Integer.MIN_VALUE));
+        assertEquals(List.of("all"), drain(seen));
+    }
+
+    // a registration filed under several tags still hears each event once
+    @Test
+    void multiTagFilterIsNotifiedOncePerEvent() {
+        FilteredYoutubeChannel channel = new FilteredYoutubeChannel();
+        List<String> seen = new ArrayList<>();
+        channel.subscribe(recorder(seen, "tagged"), EventFilter.any().withAnyTag("a", "b", "a"));
+        channel.publish(new ChannelEvent("t", Set.of("a", "b"), 0));
+        channel.publish(new ChannelEvent("t", Set.of("c"), 0));
+        assertEquals(List.of("tagged"), seen);
+    }
+
+    @Test
+    void unsubscribeRemovesEveryRegistration() {
+        FilteredYoutubeChannel channel = new FilteredYoutubeChannel();
+        List<String> seen = new ArrayList<>();
+        EventObserver<ChannelEvent> observer = recorder(seen, "gone");
+        channel.subscribe(observer, EventFilter.any().withTopic("music"));
+        channel.subscribe(observer, EventFilter.any().withAnyTag("live"));
+        channel.subscribe(observer, EventFilter.any().withMinPriority(1));
+        channel.subscribe(observer);
+        channel.subscribe(recorder(seen, "kept"), EventFilter.any().withMinPriority(1));
+        channel.unsubscribe(observer);
+        channel.publish(new ChannelEvent("music", Set.of("live"), 9));
+        assertEquals(List.of("kept"), seen);
+    }
+
+    @Test
+    void manyPriorityThresholdsStaySorted() {
+        FilteredYoutubeChannel channel = new FilteredYoutubeChannel();
+        List<String> seen = new ArrayList<>();
+        for (int threshold : new int[]{7, -3, 4, 0, 10, 4}) {
+            channel.subscribe(recorder(seen, String.valueOf(threshold)), EventFilter.any().withMinPriority(threshold));
+        }
+        channel.publish(new ChannelEvent("t", Set.of(), 4));
+        List<String> reached = drain(seen);
+        assertEquals(4, reached.size());
+        assertTrue(reached.containsAll(List.of("-3", "0", "4")));
+        assertFalse(reached.contains("7"));
+    }
+
+    private static EventObserver<ChannelEvent> recorder(List<String> seen, String name) {
+        return events -> seen.add(name);
+    }
+
+    private static List<String> drain(List<String> seen) {
+        List<String> copy = List.copyOf(seen);
+        seen.clear();
+        return copy;
+    }
+}
@@ -0,0 +1,114 @@
+package behavioural;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class FlowBridgeTest {
+
+    @Test
+    void itemsAreOnlyDeliveredOnDemand() {
+        ConcurrentYoutubeChannel channel = new ConcurrentYoutubeChannel();
+        Recorder<Long> recorder = new Recorder<>();
+        FlowBridge.publisher(channel, 8, OverflowPolicy.DROP_NEWEST).subscribe(recorder);
+        for (int i = 0; i < 5; i++) {
+            channel.notifyObservers();
+        }
+        assertEquals(List.of(), recorder.items);
+        recorder.subscription.request(2);
+        assertEquals(List.of(1L, 2L), recorder.items);
+        recorder.subscription.request(Long.MAX_VALUE);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), recorder.items);
+    }
+
+    @Test
+    void cancelUnsubscribesFromTheSubject() {
+        ConcurrentYoutubeChannel channel = new ConcurrentYoutubeChannel();
+        Recorder<Long> recorder = new Recorder<>();
+        FlowBridge.publisher(channel, 8, OverflowPolicy.DROP_NEWEST).subscribe(recorder);
+        assertEquals(1, channel.subscriberCount());
+        recorder.subscription.cancel();
+        assertEquals(0, channel.subscriberCount());
+    }
+
+    // an invalid request made from inside onNext must not signal onError before onNext returns
+    @Test
+    void invalidRequestErrorIsSerialisedWithOnNext() {
+        try (BatchingChannel<String> channel = new BatchingChannel<>(1, Duration.ZERO)) {
+            Recorder<String> recorder = new Recorder<>() {
+                @Override
+                public void onNext(String item) {
+                    super.onNext(item);
+                    subscription.request(0);
+                    inOnNext = false;
+                }
+            };
+            FlowBridge.publisher(channel, 8, OverflowPolicy.DROP_NEWEST).subscribe(recorder);
+            recorder.subscription.request(10);
+            channel.publish("a");
+            channel.publish("b");
+            assertEquals(List.of("a"), recorder.items);
+            assertInstanceOf(IllegalArgumentException.class, recorder.error);
+            assertFalse(recorder.errorDuringOnNext);
+        }
+    }
+
+    @Test
+    void onNextFailureIsReportedOnce() {
+        ConcurrentYoutubeChannel channel = new ConcurrentYoutubeChannel();
+        Recorder<Long> recorder = new Recorder<>() {
+            @Override
+            public void onNext(Long item) {
+                throw new IllegalStateException("boom");
+            }
+        };
+        FlowBridge.publisher(channel, 8, OverflowPolicy.DROP_NEWEST).subscribe(recorder);
+        recorder.subscription.request(5);
+        channel.notifyObservers();
+        channel.notifyObservers();
+        assertInstanceOf(IllegalStateException.class, recorder.error);
+        assertEquals(1, recorder.errors);
+        assertEquals(0, channel.subscriberCount());
+        assertFalse(recorder.completed);
+    }
+
+    private static class Recorder<T> implements Flow.Subscriber<T> {
+        final List<T> items = new ArrayList<>();
+        Flow.Subscription subscription;
+        Throwable error;
+        int errors;
+        boolean inOnNext;
+        boolean errorDuringOnNext;
+        boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T item) {
+            inOnNext = true;
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            errorDuringOnNext |= inOnNext;
+            error = throwable;
+            errors++;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
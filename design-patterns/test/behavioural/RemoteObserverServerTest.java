@@ -0,0 +1,84 @@
+package behavioural;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RemoteObserverServerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void remoteClientsAreNotifiedAndDisconnectsAreUnsubscribed() throws Exception {
+        ConcurrentYoutubeChannel channel = new ConcurrentYoutubeChannel();
+        Path socket = directory.resolve("observers.sock");
+        try (RemoteObserverServer server = RemoteObserverServer.start(channel, socket, 1024)) {
+            CountDownLatch first = new CountDownLatch(3);
+            CountDownLatch second = new CountDownLatch(3);
+            RemoteSubscriberClient leaving = RemoteSubscriberClient.connect(socket, first::countDown);
+            try (RemoteSubscriberClient staying = RemoteSubscriberClient.connect(socket, second::countDown)) {
+                awaitTrue(() -> channel.subscriberCount() == 2);
+                for (int i = 0; i < 3; i++) {
+                    channel.notifyObservers();
+                }
+                assertTrue(first.await(5, TimeUnit.SECONDS));
+                assertTrue(second.await(5, TimeUnit.SECONDS));
+                assertEquals(3, staying.lastSequence());
+
+                // one client going away must not affect the other
+                leaving.close();
+                awaitTrue(() -> channel.subscriberCount() == 1);
+                CountDownLatch more = new CountDownLatch(1);
+                channel.subscribe(more::countDown);
+                channel.notifyObservers();
+                assertTrue(more.await(5, TimeUnit.SECONDS));
+                awaitTrue(() -> staying.lastSequence() == 4);
+                assertEquals(1, server.connectionCount());
+            }
+        }
+    }
+
+    // a frame with the largest payload must fit in the client's buffer, or the reader spins forever
+    @Test
+    void clientReadsAFrameOfTheLargestSize() throws Exception {
+        Path socket = directory.resolve("large.sock");
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            CountDownLatch notified = new CountDownLatch(2);
+            try (RemoteSubscriberClient client = RemoteSubscriberClient.connect(socket, notified::countDown);
+                 SocketChannel connection = server.accept()) {
+                ByteBuffer large = RemoteFrame.encode(RemoteFrame.NOTIFY, 1, new byte[RemoteFrame.MAX_PAYLOAD]);
+                ByteBuffer small = RemoteFrame.encode(RemoteFrame.NOTIFY, 2, new byte[0]);
+                // a small frame first, so the large one starts part way into the buffer
+                connection.write(RemoteFrame.encode(RemoteFrame.NOTIFY, 0, new byte[0]));
+                while (large.hasRemaining()) {
+                    connection.write(large);
+                }
+                connection.write(small);
+                assertTrue(notified.await(5, TimeUnit.SECONDS));
+                awaitTrue(() -> client.lastSequence() == 2);
+            }
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5 s");
+            Thread.sleep(5);
+        }
+    }
+}
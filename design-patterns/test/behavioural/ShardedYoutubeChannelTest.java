@@ -0,0 +1,150 @@
+package behavioural;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShardedYoutubeChannelTest {
+
+    @Test
+    void subscribeUnsubscribeAndNotifyAcrossStripes() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // threshold 0 takes the parallel path, the huge one the sequential path
+            for (int threshold : new int[]{0, Integer.MAX_VALUE}) {
+                ShardedYoutubeChannel channel = new ShardedYoutubeChannel(8, threshold, executor);
+                int[] calls = new int[1_000];
+                Observer[] observers = new Observer[calls.length];
+                for (int i = 0; i < observers.length; i++) {
+                    int id = i;
+                    observers[i] = () -> {
+                        synchronized (calls) {
+                            calls[id]++;
+                        }
+                    };
+                    channel.subscribe(observers[i]);
+                }
+                channel.subscribe(observers[0]);
+                for (int i = 1; i < observers.length; i += 2) {
+                    channel.unsubscribe(observers[i]);
+                }
+                // removes one of the two registrations of observers[0]
+                channel.unsubscribe(observers[0]);
+                channel.unsubscribe(() -> { });
+                assertEquals(observers.length / 2, channel.subscriberCount());
+
+                channel.notifyObservers();
+                synchronized (calls) {
+                    for (int i = 0; i < calls.length; i++) {
+                        assertEquals(i % 2 == 0 ? 1 : 0, calls[i], "observer " + i);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // concurrent notifyObservers() calls must not run one stripe's rounds at the same time
+    @Test
+    void aStripeRunsOneNotificationAtATime() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            ShardedYoutubeChannel channel = new ShardedYoutubeChannel(1, 0, pool);
+            AtomicBoolean inRound = new AtomicBoolean();
+            AtomicInteger overlaps = new AtomicInteger();
+            AtomicLong rounds = new AtomicLong();
+            List<Integer> order = new ArrayList<>();
+            channel.subscribe(() -> {
+                if (!inRound.compareAndSet(false, true)) {
+                    overlaps.incrementAndGet();
+                }
+                order.add(0);
+            });
+            for (int i = 1; i < 10; i++) {
+                int id = i;
+                channel.subscribe(() -> {
+                    order.add(id);
+                    Thread.yield();
+                });
+            }
+            channel.subscribe(() -> {
+                order.add(10);
+                rounds.incrementAndGet();
+                inRound.set(false);
+            });
+
+            int perCaller = 500;
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                tasks.add(callers.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perCaller; i++) {
+                        channel.notifyObservers();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> task : tasks) {
+                task.get(1, TimeUnit.MINUTES);
+            }
+
+            assertEquals(0, overlaps.get());
+            assertEquals(4L * perCaller, rounds.get());
+            // every round ran start to finish in subscription order
+            for (int i = 0; i < order.size(); i++) {
+                assertEquals(i % 11, order.get(i));
+            }
+        } finally {
+            callers.shutdown();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void nestedNotificationRunsAfterTheCurrentOne() {
+        ShardedYoutubeChannel channel = new ShardedYoutubeChannel(1, Integer.MAX_VALUE, Runnable::run);
+        List<String> log = new ArrayList<>();
+        AtomicInteger depth = new AtomicInteger();
+        channel.subscribe(() -> {
+            log.add("first");
+            if (depth.incrementAndGet() < 3) {
+                channel.notifyObservers();
+            }
+        });
+        channel.subscribe(() -> log.add("second"));
+        channel.notifyObservers();
+        assertEquals(List.of("first", "second", "first", "second", "first", "second"), log);
+    }
+
+    @Test
+    void observerExceptionReachesTheCallerAndLaterRoundsStillRun() {
+        ShardedYoutubeChannel channel = new ShardedYoutubeChannel(4, 0, Runnable::run);
+        AtomicBoolean fail = new AtomicBoolean(true);
+        AtomicLong count = new AtomicLong();
+        channel.subscribe(() -> {
+            if (fail.getAndSet(false)) {
+                throw new IllegalStateException("observer broke");
+            }
+            count.incrementAndGet();
+        });
+        assertThrows(IllegalStateException.class, channel::notifyObservers);
+        channel.notifyObservers();
+        assertEquals(1, count.get());
+    }
+}
@@ -0,0 +1,109 @@
+package behavioural;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SubscriptionChannelTest {
+
+    @Test
+    void cancelRemovesExactlyItsOwnRegistration() {
+        SubscriptionChannel channel = new SubscriptionChannel();
+        AtomicLong count = new AtomicLong();
+        Observer observer = count::incrementAndGet;
+        Subscription first = channel.register(observer);
+        channel.register(observer);
+        first.cancel();
+        first.cancel();
+        channel.notifyObservers();
+        assertEquals(1, channel.subscriberCount());
+        assertEquals(1, count.get());
+        channel.unsubscribe(observer);
+        channel.notifyObservers();
+        assertEquals(0, channel.subscriberCount());
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    void observerMayCancelAndRegisterWhileBeingNotified() {
+        SubscriptionChannel channel = new SubscriptionChannel();
+        AtomicLong count = new AtomicLong();
+        Subscription[] self = new Subscription[1];
+        self[0] = channel.register(() -> {
+            count.incrementAndGet();
+            self[0].cancel();
+            channel.register(count::incrementAndGet);
+        });
+        channel.notifyObservers();
+        assertEquals(1, count.get());
+        channel.notifyObservers();
+        assertEquals(2, count.get());
+        assertEquals(1, channel.subscriberCount());
+    }
+
+    // random cancels and registrations against a model of who should be notified
+    @Test
+    void churnKeepsExactlyTheLiveRegistrations() {
+        SubscriptionChannel channel = new SubscriptionChannel();
+        Random random = new Random(42);
+        int[] calls = new int[2_000];
+        Map<Integer, Subscription> live = new HashMap<>();
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 0; id < 1_000; id++) {
+            live.put(id, register(channel, calls, id));
+            ids.add(id);
+        }
+        int next = live.size();
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 50; i++) {
+                Integer victim = ids.remove(random.nextInt(ids.size()));
+                live.remove(victim).cancel();
+                if (next < calls.length) {
+                    live.put(next, register(channel, calls, next));
+                    ids.add(next++);
+                }
+            }
+            int[] before = calls.clone();
+            channel.notifyObservers();
+            assertEquals(live.size(), channel.subscriberCount());
+            for (int id = 0; id < calls.length; id++) {
+                assertEquals(before[id] + (live.containsKey(id) ? 1 : 0), calls[id], "observer " + id);
+            }
+        }
+    }
+
+    @Test
+    void collectedWeakRegistrationsArePurged() throws InterruptedException {
+        SubscriptionChannel channel = new SubscriptionChannel();
+        AtomicLong count = new AtomicLong();
+        Observer kept = count::incrementAndGet;
+        channel.registerWeak(kept);
+        for (int i = 0; i < 100; i++) {
+            channel.registerWeak(count::incrementAndGet);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (channel.subscriberCount() > 1 && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+            channel.notifyObservers();
+        }
+        assertEquals(1, channel.subscriberCount());
+        count.set(0);
+        channel.notifyObservers();
+        assertEquals(1, count.get());
+        channel.unsubscribe(kept);
+        assertEquals(0, channel.subscriberCount());
+    }
+
+    private static Subscription register(SubscriptionChannel channel, int[] calls, int id) {
+        return channel.register(() -> calls[id]++);
+    }
+}
@@ -0,0 +1,268 @@
+package creational;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionPoolTest {
+
+    // no connection is ever leased twice at once and the pool never grows past maxSize
+    @Test
+    void manyThreadsShareABoundedSetOfConnections() throws Exception {
+        int maxSize = 8;
+        int threads = 64;
+        int leasesPerThread = 500;
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger inUse = new AtomicInteger();
+        AtomicInteger maxInUse = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        try (ConnectionPool<TrackedConnection> pool = ConnectionPool.newBuilder(() -> {
+                    created.incrementAndGet();
+                    return new TrackedConnection();
+                })
+                .setMinSize(2)
+                .setMaxSize(maxSize)
+                .build()) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < leasesPerThread; i++) {
+                        try (ConnectionPool.Lease<TrackedConnection> lease = pool.borrow(30, TimeUnit.SECONDS)) {
+                            TrackedConnection connection = lease.get();
+                            if (!connection.leased.compareAndSet(false, true)) {
+                                overlaps.incrementAndGet();
+                            }
+                            maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                            Thread.yield();
+                            inUse.decrementAndGet();
+                            connection.leased.set(false);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> task : tasks) {
+                task.get(2, TimeUnit.MINUTES);
+            }
+            executor.shutdown();
+
+            ConnectionPool.Metrics metrics = pool.metrics();
+            assertEquals(0, overlaps.get());
+            assertTrue(maxInUse.get() <= maxSize, () -> "in use at once: " + maxInUse.get());
+            assertTrue(created.get() <= maxSize, () -> "created: " + created.get());
+            assertEquals((long) threads * leasesPerThread, metrics.leases());
+            assertEquals(0, metrics.timeouts());
+            assertEquals(0, metrics.active());
+            assertEquals(metrics.total(), metrics.idle());
+        }
+    }
+
+    @Test
+    void borrowTimesOutWhenEveryConnectionIsLeased() throws Exception {
+        try (ConnectionPool<TrackedConnection> pool = ConnectionPool.newBuilder(TrackedConnection::new)
+                .setMaxSize(1)
+                .build();
+             ConnectionPool.Lease<TrackedConnection> held = pool.borrow(1, TimeUnit.SECONDS)) {
+            assertFalse(held.get().closed);
+            assertThrows(TimeoutException.class, () -> pool.borrow(20, TimeUnit.MILLISECONDS));
+            assertEquals(1, pool.metrics().timeouts());
+        }
+    }
+
+    @Test
+    void mostRecentlyReturnedConnectionIsLeasedFirst() throws Exception {
+        try (ConnectionPool<TrackedConnection> pool = ConnectionPool.newBuilder(TrackedConnection::new)
+                .setMaxSize(2)
+                .build()) {
+            ConnectionPool.Lease<TrackedConnection> first = pool.borrow(1, TimeUnit.SECONDS);
+            ConnectionPool.Lease<TrackedConnection> second = pool.borrow(1, TimeUnit.SECONDS);
+            TrackedConnection firstConnection = first.get();
+            TrackedConnection secondConnection = second.get();
+            assertNotSame(firstConnection, secondConnection);
+            first.close();
+            second.close();
+            try (ConnectionPool.Lease<TrackedConnection> again = pool.borrow(1, TimeUnit.SECONDS)) {
+                assertSame(secondConnection, again.get());
+            }
+            assertThrows(IllegalStateException.class, first::get);
+        }
+    }
+
+    @Test
+    void invalidConnectionsAreDestroyedAndReplaced() throws Exception {
+        try (ConnectionPool<TrackedConnection> pool = ConnectionPool.newBuilder(TrackedConnection::new)
+                .setMaxSize(1)
+                .setValidator(connection -> !connection.broken)
+                .setDestroyer(TrackedConnection::close)
+                .build()) {
+            TrackedConnection broken;
+            try (ConnectionPool.Lease<TrackedConnection> lease = pool.borrow(1, TimeUnit.SECONDS)) {
+                broken = lease.get();
+                broken.broken = true;
+            }
+            try (ConnectionPool.Lease<TrackedConnection> lease = pool.borrow(1, TimeUnit.SECONDS)) {
+                assertNotSame(broken, lease.get());
+            }
+            assertTrue(broken.closed);
+            assertEquals(1, pool.metrics().total());
+        }
+    }
+
+    @Test
+    void idleConnectionsAboveMinSizeAreEvicted() throws Exception {
+        try (ConnectionPool<TrackedConnection> pool = ConnectionPool.newBuilder(TrackedConnection::new)
+                .setMinSize(1)
+                .setMaxSize(4)
+                .setIdleTimeout(Duration.ofMillis(10))
+                .setEvictionInterval(Duration.ofMillis(10))
+                .setDestroyer(TrackedConnection::close)
+                .build()) {
+            List<ConnectionPool.Lease<TrackedConnection>> leases = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                leases.add(pool.borrow(1, TimeUnit.SECONDS));
+            }
+            leases.forEach(ConnectionPool.Lease::close);
+            assertEquals(4, pool.metrics().total());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (pool.metrics().total() > 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, pool.metrics().total());
+            assertEquals(1, pool.metrics().idle());
+        }
+    }
+
+    @Test
+    void closedPoolRejectsBorrowsAndDestroysReturnedConnections() throws Exception {
+        ConnectionPool<TrackedConnection> pool = ConnectionPool.newBuilder(TrackedConnection::new)
+                .setMinSize(1)
+                .setMaxSize(2)
+                .setDestroyer(TrackedConnection::close)
+                .build();
+        ConnectionPool.Lease<TrackedConnection> lease = pool.borrow(1, TimeUnit.SECONDS);
+        pool.close();
+        assertThrows(IllegalStateException.class, () -> pool.borrow(1, TimeUnit.SECONDS));
+        TrackedConnection connection = lease.get();
+        lease.close();
+        assertTrue(connection.closed);
+        assertEquals(0, pool.metrics().total());
+    }
+
+    @Test
+    void throwingValidatorDestroysTheConnectionAndKeepsCapacity() throws Exception {
+        AtomicBoolean failValidation = new AtomicBoolean();
+        try (ConnectionPool<TrackedConnection> pool = ConnectionPool.newBuilder(TrackedConnection::new)
+                .setMaxSize(1)
+                .setValidator(connection -> {
+                    if (failValidation.getAndSet(false)) {
+                        throw new IllegalStateException("validator broke");
+                    }
+                    return true;
+                })
+                .setDestroyer(TrackedConnection::close)
+                .build()) {
+            TrackedConnection first;
+            try (ConnectionPool.Lease<TrackedConnection> lease = pool.borrow(1, TimeUnit.SECONDS)) {
+                first = lease.get();
+            }
+            failValidation.set(true);
+            assertThrows(IllegalStateException.class, () -> pool.borrow(1, TimeUnit.SECONDS));
+            assertTrue(first.closed);
+            assertEquals(0, pool.metrics().total());
+            try (ConnectionPool.Lease<TrackedConnection> lease = pool.borrow(1, TimeUnit.SECONDS)) {
+                assertNotSame(first, lease.get());
+            }
+        }
+    }
+
+    // a caller still waiting when the pool closes must not create a connection afterwards
+    @Test
+    void waiterWokenAfterCloseIsRejected() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        ConnectionPool<TrackedConnection> pool = ConnectionPool.newBuilder(() -> {
+                    created.incrementAndGet();
+                    return new TrackedConnection();
+                })
+                .setMaxSize(1)
+                .build();
+        ConnectionPool.Lease<TrackedConnection> held = pool.borrow(1, TimeUnit.SECONDS);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AtomicReference<Thread> waiter = new AtomicReference<>();
+            Future<?> waiting = executor.submit(() -> {
+                waiter.set(Thread.currentThread());
+                return pool.borrow(30, TimeUnit.SECONDS);
+            });
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while ((waiter.get() == null || waiter.get().getState() != Thread.State.TIMED_WAITING)
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            pool.close();
+            held.close();
+            ExecutionException failure = assertThrows(ExecutionException.class,
+                    () -> waiting.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, failure.getCause());
+            assertEquals(1, created.get());
+            assertEquals(0, pool.metrics().total());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsInvalidBounds() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ConnectionPool.newBuilder(TrackedConnection::new).setMinSize(3).setMaxSize(2).build());
+    }
+
+    // the singleton is process-wide, so this is the only test that enables its pool
+    @Test
+    void singletonLeasesPooledConnections() throws Exception {
+        DatabaseConnectionSingleton singleton = DatabaseConnectionSingleton.getInstance();
+        singleton.enablePooling(ConnectionPool.<DatabaseConnection>newBuilder(InMemoryConnection::new)
+                .setMaxSize(4)
+                .setValidator(DatabaseConnection::isValid)
+                .setDestroyer(DatabaseConnection::close));
+        try (ConnectionPool.Lease<DatabaseConnection> lease = singleton.lease(1, TimeUnit.SECONDS)) {
+            lease.get().execute("SELECT 1");
+        }
+        assertThrows(IllegalStateException.class,
+                () -> singleton.enablePooling(ConnectionPool.newBuilder(InMemoryConnection::new)));
+        assertEquals(1, singleton.pool().metrics().leases());
+    }
+
+    private static class TrackedConnection {
+        final AtomicBoolean leased = new AtomicBoolean();
+        volatile boolean broken;
+        volatile boolean closed;
+
+        void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package creational;
+
+import org.junit.jupiter.api.Test;
+import plugins.MarkdownDocumentProvider;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DocumentFactoryRegistryTest {
+
+    @Test
+    void lookupIgnoresCaseAndSurroundingWhitespace() {
+        DocumentFactory word = DocumentFactory.getFactory("word");
+        assertNotNull(word);
+        assertSame(word, DocumentFactory.getFactory("WORD"));
+        assertSame(word, DocumentFactory.getFactory(" \tWord\n"));
+        assertSame(DocumentFactory.getFactory("pdf"), DocumentFactory.getFactory("  Pdf"));
+        assertInstanceOf(ExcelDocument.class, DocumentFactory.getFactory("eXcEl ").createDocument());
+    }
+
+    @Test
+    void unknownTypesAreNull() {
+        assertNull(DocumentFactory.getFactory("rtf"));
+        assertNull(DocumentFactory.getFactory("wor"));
+        assertNull(DocumentFactory.getFactory("word document"));
+        assertNull(DocumentFactory.getFactory("   "));
+        assertNull(DocumentFactory.getFactory(null));
+    }
+
+    // plugins.MarkdownDocumentProvider is listed in test/META-INF/services
+    @Test
+    void providersAreFoundThroughServiceLoader() {
+        DocumentFactory markdown = DocumentFactory.getFactory("MARKDOWN");
+        assertNotNull(markdown);
+        assertInstanceOf(MarkdownDocumentProvider.MarkdownDocument.class, markdown.createDocument());
+    }
+
+    @Test
+    void aTypeRegisteredTwiceIsRejected() {
+        assertThrows(IllegalStateException.class, () -> new DocumentFactoryRegistry(
+                List.of(new MarkdownDocumentProvider(), new MarkdownDocumentProvider())));
+        assertThrows(IllegalStateException.class, () -> new DocumentFactoryRegistry(List.of(provider(" PDF"))));
+        DocumentFactoryRegistry registry = new DocumentFactoryRegistry(List.of(provider("odt")));
+        assertNotNull(registry.find(" ODT "));
+        assertNull(registry.find("markdown"));
+    }
+
+    private static DocumentFactoryProvider provider(String type) {
+        return new DocumentFactoryProvider() {
+            @Override
+            public String type() {
+                return type;
+            }
+
+            @Override
+            public DocumentFactory createFactory() {
+                return new WordDocumentFactory();
+            }
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package creational;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentPoolTest {
+
+    @Test
+    void closedDocumentsAreLeasedAgain() {
+        DocumentPool pool = new DocumentPool(WordDocument::new);
+        AbstractDocument first = pool.acquire();
+        first.close();
+        AbstractDocument second = pool.acquire();
+        assertSame(first, second);
+        second.close();
+        assertEquals(1, pool.createdCount());
+        assertEquals(2, pool.leaseCount());
+        assertThrows(IllegalStateException.class, second::close);
+    }
+
+    @Test
+    void leakedSinceListsOnlyDocumentsStillLeased() throws InterruptedException {
+        DocumentPool pool = new DocumentPool(WordDocument::new);
+        AbstractDocument leaked = pool.acquire();
+        pool.acquire().close();
+        Thread.sleep(5);
+        assertEquals(List.of(leaked), pool.leakedSince(Duration.ofMillis(1)));
+        assertEquals(List.of(), pool.leakedSince(Duration.ofHours(1)));
+        leaked.close();
+        assertEquals(List.of(), pool.leakedSince(Duration.ZERO));
+    }
+
+    // the pool must not be what keeps a leaked document alive
+    @Test
+    void leakedDocumentsCanBeCollected() throws InterruptedException {
+        DocumentPool pool = new DocumentPool(WordDocument::new);
+        for (int i = 0; i < 100; i++) {
+            pool.acquire();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pool.collectedWhileLeased() < 100 && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(100, pool.collectedWhileLeased());
+        assertTrue(pool.leakedSince(Duration.ZERO).isEmpty());
+        assertEquals(100, pool.createdCount());
+    }
+}
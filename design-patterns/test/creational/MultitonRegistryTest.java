@@ -0,0 +1,162 @@
+package creational;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MultitonRegistryTest {
+
+    @Test
+    void eachKeyIsConstructedOnceUnderContention() throws Exception {
+        ConcurrentHashMap<Integer, AtomicInteger> constructions = new ConcurrentHashMap<>();
+        MultitonRegistry<Integer, Object> registry = new MultitonRegistry<>(key -> {
+            constructions.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            return new Object();
+        });
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object[]>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            tasks.add(executor.submit(() -> {
+                start.await();
+                Object[] seen = new Object[100];
+                for (int key = 0; key < seen.length; key++) {
+                    seen[key] = registry.get(key);
+                }
+                return seen;
+            }));
+        }
+        start.countDown();
+        Object[] first = tasks.get(0).get(1, TimeUnit.MINUTES);
+        for (Future<Object[]> task : tasks) {
+            Object[] seen = task.get(1, TimeUnit.MINUTES);
+            for (int key = 0; key < seen.length; key++) {
+                assertSame(first[key], seen[key]);
+            }
+        }
+        executor.shutdown();
+        assertEquals(100, registry.size());
+        assertTrue(constructions.values().stream().allMatch(count -> count.get() == 1));
+    }
+
+    @Test
+    void slowConstructionOnlyBlocksItsOwnKey() throws Exception {
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch releaseSlow = new CountDownLatch(1);
+        MultitonRegistry<String, String> registry = new MultitonRegistry<>(key -> {
+            if (key.equals("slow")) {
+                slowStarted.countDown();
+                try {
+                    releaseSlow.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return key.toUpperCase();
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> slow = executor.submit(() -> registry.get("slow"));
+            assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+            assertEquals("FAST", registry.get("fast"));
+            releaseSlow.countDown();
+            assertEquals("SLOW", slow.get(5, TimeUnit.SECONDS));
+        } finally {
+            releaseSlow.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void failedConstructionIsRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+        MultitonRegistry<String, String> registry = new MultitonRegistry<>(key -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("first attempt fails");
+            }
+            return key;
+        });
+        assertThrows(IllegalStateException.class, () -> registry.get("a"));
+        assertEquals(0, registry.size());
+        assertEquals("a", registry.get("a"));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void recursiveConstructionOfTheSameKeyIsRejected() {
+        AtomicReference<MultitonRegistry<String, String>> self = new AtomicReference<>();
+        MultitonRegistry<String, String> registry = new MultitonRegistry<>(key -> switch (key) {
+            case "self" -> self.get().get("self");
+            case "a" -> self.get().get("b");
+            case "b" -> self.get().get("a");
+            default -> key;
+        });
+        self.set(registry);
+        assertThrows(IllegalStateException.class, () -> registry.get("self"));
+        assertThrows(IllegalStateException.class, () -> registry.get("a"));
+        assertEquals(0, registry.size());
+        assertEquals("plain", registry.get("plain"));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void keyedSingletonsCannotBeBuiltOutsideTheirRegistry() {
+        assertThrows(RuntimeException.class, () -> new Tenant("a"));
+        // another registry constructing the same key must not open this registry's guard
+        MultitonRegistry<String, Tenant> other = new MultitonRegistry<>(Tenant::new);
+        assertThrows(RuntimeException.class, () -> other.get("a"));
+        assertEquals("a", Tenant.getInstance("a").getKey());
+    }
+
+    @Test
+    void deserializationResolvesToTheRegisteredInstance() throws Exception {
+        Tenant tenant = Tenant.getInstance("serialized");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(tenant);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertSame(tenant, in.readObject());
+        }
+        assertThrows(CloneNotSupportedException.class, tenant::clone);
+    }
+
+    static class Tenant extends KeyedSingleton<String> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+        private static final MultitonRegistry<String, Tenant> registry = new MultitonRegistry<>(Tenant::new);
+
+        Tenant(String key) {
+            super(registry, key);
+        }
+
+        static Tenant getInstance(String key) {
+            return registry.get(key);
+        }
+
+        @Override
+        protected MultitonRegistry<String, ?> registry() {
+            return registry;
+        }
+    }
+}
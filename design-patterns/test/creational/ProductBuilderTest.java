@@ -0,0 +1,89 @@
+package creational;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProductBuilderTest {
+
+    @Test
+    void builtFeaturesAreFrozenCopies() {
+        List<String> features = new ArrayList<>(List.of("8GB RAM", "128GB SSD"));
+        Product product = Product.newBuilder().setFeatures(features).build();
+        features.add("later");
+        assertEquals(List.of("8GB RAM", "128GB SSD"), product.getFeatures());
+        assertThrows(UnsupportedOperationException.class, () -> product.getFeatures().add("x"));
+
+        String[] array = {"a", null};
+        Product fromArray = Product.newBuilder().setFeatureArray(array).build();
+        array[0] = "changed";
+        assertEquals(Arrays.asList("a", null), fromArray.getFeatures());
+        assertNull(Product.newBuilder().setFeatures(null).build().getFeatures());
+    }
+
+    // an immutable list is kept as it is; a mutable one with a null feature is still copied
+    @Test
+    void immutableFeaturesAreNotCopiedAgain() {
+        List<String> features = List.of("8GB RAM", "128GB SSD");
+        assertSame(features, Product.newBuilder().setFeatures(features).build().getFeatures());
+
+        List<String> withNull = new ArrayList<>(Arrays.asList("4K", null));
+        Product product = Product.newBuilder().setFeatures(withNull).build();
+        withNull.set(0, "changed");
+        assertEquals(Arrays.asList("4K", null), product.getFeatures());
+        assertThrows(UnsupportedOperationException.class, () -> product.getFeatures().set(0, "x"));
+    }
+
+    @Test
+    void buildAllAcceptsNullElementsAndSharesRepeatedFeatureArrays() {
+        String[] shared = {"wifi", null};
+        Product[] products = Product.buildAll(
+                new String[] {"a", null, "c"},
+                new double[] {1, 2, 3},
+                new String[][] {shared, shared, null},
+                null);
+        assertEquals(3, products.length);
+        assertNull(products[1].getName());
+        assertEquals(Arrays.asList("wifi", null), products[0].getFeatures());
+        assertSame(products[0].getFeatures(), products[1].getFeatures());
+        assertNull(products[2].getFeatures());
+        assertNull(products[2].getDescription());
+        assertThrows(IllegalArgumentException.class,
+                () -> Product.buildAll(new String[1], new double[2], new String[2][], null));
+    }
+
+    @Test
+    void threadBuilderStartsEmpty() {
+        Product.threadBuilder().setName("left over").setPrice(5);
+        Product product = Product.threadBuilder().setDescription("fresh").build();
+        assertNull(product.getName());
+        assertEquals(0, product.getPrice());
+    }
+
+    @Test
+    void builtProductsSerialize() throws Exception {
+        Product product = Product.newBuilder().setName("TV").setPrice(10).setFeatureArray("4K", null).build();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(product);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Product copy = (Product) in.readObject();
+            assertNotSame(product, copy);
+            assertEquals("TV", copy.getName());
+            assertEquals(Arrays.asList("4K", null), copy.getFeatures());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package creational;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProductCatalogTest {
+
+    @Test
+    void rowsReadBackWhatWasAppended() {
+        ProductCatalog catalog = new ProductCatalog(2);
+        for (int i = 0; i < 100; i++) {
+            Product.newBuilder()
+                    .setName("Product " + i % 10)
+                    .setPrice(i)
+                    .setFeatures(List.of("feature-" + i % 3, "shared"))
+                    .setDescription(i % 2 == 0 ? null : "odd")
+                    .addTo(catalog);
+        }
+        assertEquals(100, catalog.size());
+        assertEquals(4, catalog.distinctFeatures());
+        Product row = catalog.get(41);
+        assertEquals("Product 1", row.getName());
+        assertEquals(41.0, row.getPrice());
+        assertEquals(List.of("feature-2", "shared"), row.getFeatures());
+        assertEquals("odd", row.getDescription());
+        assertNull(catalog.get(40).getDescription());
+    }
+
+    // a view serializes as a standalone product, null features included
+    @Test
+    void rowViewsSerializeAsStandaloneProducts() throws Exception {
+        ProductCatalog catalog = new ProductCatalog();
+        List<String> features = Arrays.asList("4K", null, "HDR");
+        int row = Product.newBuilder().setName("TV").setPrice(899.5).setFeatures(features).addTo(catalog);
+        Product view = catalog.get(row);
+
+        Product copy = roundTrip(view);
+        assertNotSame(view.getClass(), copy.getClass());
+        assertEquals("TV", copy.getName());
+        assertEquals(899.5, copy.getPrice());
+        assertEquals(features, copy.getFeatures());
+        assertNull(copy.getDescription());
+    }
+
+    private static Product roundTrip(Product product) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(product);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (Product) in.readObject();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package creational;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductCodecTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void edgeCasesAndLargeBatchesRoundTripThroughAFile() {
+        List<Product> products = edgeCases();
+        for (int i = 0; i < 50_000; i++) {
+            products.add(Product.newBuilder()
+                    .setName("Product " + i)
+                    .setPrice(i * 0.25)
+                    .setFeatures(List.of("feature-" + i % 300, "feature-" + (i * 7) % 300))
+                    .setDescription(i % 3 == 0 ? null : "Category " + i % 100)
+                    .build());
+        }
+        Path file = directory.resolve("products.bin");
+        ProductCodec.write(products, file);
+        List<Product> decoded = new ArrayList<>();
+        ProductCodec.read(file, decoded::add);
+        assertSameProducts(products, decoded);
+    }
+
+    // a missing feature list used to come back as an empty one
+    @Test
+    void nullAndEmptyFeatureListsStayDistinct() throws IOException {
+        List<Product> products = List.of(
+                Product.newBuilder().setName("none").build(),
+                Product.newBuilder().setName("empty").setFeatures(List.of()).build());
+        List<Product> decoded = decode(encode(products));
+        assertNull(decoded.get(0).getFeatures());
+        assertEquals(List.of(), decoded.get(1).getFeatures());
+    }
+
+    @Test
+    void recordsSplitAcrossEveryReadAreReassembled() throws IOException {
+        // the huge edge case is left out: every byte would re-decode half a megabyte
+        List<Product> products = edgeCases().subList(0, 3);
+        // one byte at a time, so every record is split across reads
+        List<Product> decoded = decode(encode(products), 1);
+        assertSameProducts(products, decoded);
+    }
+
+    @Test
+    void encoderLeavesTheBufferUntouchedWhenAProductDoesNotFit() {
+        ProductCodec.Encoder encoder = ProductCodec.newEncoder();
+        ByteBuffer small = ByteBuffer.allocate(16);
+        Product product = Product.newBuilder().setName("does not fit").setFeatures(List.of("a feature")).build();
+        assertFalse(encoder.encode(product, small));
+        assertEquals(0, small.position());
+        ByteBuffer large = ByteBuffer.allocate(256);
+        assertTrue(encoder.encode(product, large));
+        // the feature was rolled back, so it is written again with the product
+        ByteBuffer fresh = ByteBuffer.allocate(256);
+        assertTrue(ProductCodec.newEncoder().encode(product, fresh));
+        assertEquals(fresh.position(), large.position());
+    }
+
+    // streams written before the features flag existed always carry a count
+    @Test
+    void versionOneStreamsAreStillRead() throws IOException {
+        byte[] feature = "wifi".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer stream = ByteBuffer.allocate(64)
+                .putInt(ProductCodec.MAGIC).put((byte) 1)
+                .put((byte) 1).put((byte) feature.length).put(feature)
+                .put((byte) 2).put((byte) 0).putDouble(9.5).put((byte) 1).put((byte) 0)
+                .put((byte) 0)
+                .flip();
+        List<Product> decoded = decode(stream);
+        assertEquals(1, decoded.size());
+        assertEquals(List.of("wifi"), decoded.get(0).getFeatures());
+        assertEquals(9.5, decoded.get(0).getPrice());
+        assertNull(decoded.get(0).getName());
+    }
+
+    @Test
+    void truncatedStreamsAreRejected() {
+        ByteBuffer encoded = encode(edgeCases());
+        ByteBuffer truncated = encoded.limit(encoded.limit() - 10);
+        assertThrows(IOException.class, () -> decode(truncated));
+    }
+
+    private static List<Product> edgeCases() {
+        List<Product> products = new ArrayList<>();
+        products.add(Product.newBuilder().build());
+        products.add(Product.newBuilder().setName("").setPrice(-0.0).setFeatures(List.of()).setDescription("").build());
+        products.add(Product.newBuilder().setName("Ünïcödé ✓ 日本").setPrice(Double.NaN)
+                .setFeatures(List.of("é", "€", "😀")).build());
+        products.add(Product.newBuilder().setName("Huge").setPrice(Double.MAX_VALUE)
+                .setFeatures(List.of("x".repeat(200_000))).setDescription("y".repeat(300_000)).build());
+        return products;
+    }
+
+    private static ByteBuffer encode(List<Product> products) {
+        ProductCodec.Encoder encoder = ProductCodec.newEncoder();
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+        encoder.writeHeader(buffer);
+        for (Product product : products) {
+            assertTrue(encoder.encode(product, buffer));
+        }
+        assertTrue(encoder.writeEnd(buffer));
+        return buffer.flip();
+    }
+
+    private static List<Product> decode(ByteBuffer stream) throws IOException {
+        return decode(stream, Integer.MAX_VALUE);
+    }
+
+    // reads at most chunk bytes per call, as a slow channel would
+    private static List<Product> decode(ByteBuffer stream, int chunk) throws IOException {
+        List<Product> decoded = new ArrayList<>();
+        ProductCodec.read(new ReadableByteChannel() {
+            @Override
+            public int read(ByteBuffer dst) {
+                if (!stream.hasRemaining()) {
+                    return -1;
+                }
+                int count = Math.min(chunk, Math.min(dst.remaining(), stream.remaining()));
+                dst.put(stream.slice(stream.position(), count));
+                stream.position(stream.position() + count);
+                return count;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        }, decoded::add);
+        return decoded;
+    }
+
+    private static void assertSameProducts(List<Product> expected, List<Product> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Product a = expected.get(i);
+            Product b = actual.get(i);
+            int row = i;
+            assertEquals(a.getName(), b.getName(), () -> "name of " + row);
+            assertEquals(0, Double.compare(a.getPrice(), b.getPrice()), () -> "price of " + row);
+            assertEquals(a.getFeatures(), b.getFeatures(), () -> "features of " + row);
+            assertEquals(a.getDescription(), b.getDescription(), () -> "description of " + row);
+        }
+    }
+}
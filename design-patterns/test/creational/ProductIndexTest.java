@@ -0,0 +1,116 @@
+package creational;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ProductIndexTest {
+
+    // every query answered by the index must match a scan of the catalog
+    @Test
+    void randomQueriesMatchABruteForceScan() {
+        Random random = new Random(42);
+        int features = 60;
+        ProductCatalog catalog = new ProductCatalog();
+        ProductIndex index = catalog.enableIndex(32);
+        // more than one container's worth of rows, and skewed features so some postings turn dense
+        for (int row = 0; row < 70_000; row++) {
+            int count = random.nextInt(5);
+            List<String> rowFeatures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int feature = (int) (features * Math.pow(random.nextDouble(), 3));
+                rowFeatures.add("f" + feature);
+            }
+            Product.newBuilder().setName("p" + row).setPrice(random.nextInt(1000)).setFeatures(rowFeatures)
+                    .addTo(catalog);
+        }
+        for (int q = 0; q < 200; q++) {
+            ProductIndex.Query query = randomQuery(random, features);
+            assertArrayEquals(scan(catalog, query), index.find(query), query::toString);
+            // the cached answer must be the same
+            assertEquals(scan(catalog, query).length, index.count(query), query::toString);
+        }
+    }
+
+    @Test
+    void rowsWithNullFeaturesAreAppendedAndIndexedWithoutThem() {
+        ProductCatalog catalog = new ProductCatalog();
+        ProductIndex index = catalog.enableIndex(8);
+        Product.newBuilder().setName("a").setFeatures(Arrays.asList("wifi", null)).addTo(catalog);
+        Product.newBuilder().setName("b").setFeatures(Arrays.asList(null, "bluetooth")).addTo(catalog);
+        assertEquals(2, catalog.size());
+        assertArrayEquals(new int[] {0}, index.find(ProductIndex.allOf("wifi")));
+        assertArrayEquals(new int[] {0, 1}, index.find(ProductIndex.anyOf("wifi", "bluetooth")));
+        assertEquals(Arrays.asList(null, "bluetooth"), catalog.get(1).getFeatures());
+    }
+
+    @Test
+    void cachedResultsAreRecomputedAfterAppends() {
+        ProductCatalog catalog = new ProductCatalog();
+        ProductIndex index = catalog.enableIndex(8);
+        Product.newBuilder().setFeatures(List.of("wifi")).addTo(catalog);
+        ProductIndex.Query query = ProductIndex.allOf("wifi");
+        assertEquals(1, index.count(query));
+        assertArrayEquals(new int[] {0}, index.find(query));
+        Product.newBuilder().setFeatures(List.of("wifi")).addTo(catalog);
+        assertEquals(2, index.count(query));
+        assertEquals(1, index.cacheHits());
+        assertEquals(2, index.cacheMisses());
+    }
+
+    // a single-feature query without a price range used to hand out the live posting list;
+    // it now gets a copy like this one
+    @Test
+    void copiesOfABitmapAreIndependent() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int value = 0; value < 10_000; value += 2) {
+            bitmap.add(value);
+        }
+        bitmap.add(1 << 20);
+        RoaringBitmap copy = bitmap.copy();
+        bitmap.add(1);
+        bitmap.add(3 << 20);
+        assertEquals(5_001, copy.cardinality());
+        assertEquals(5_003, bitmap.cardinality());
+        assertFalse(copy.contains(1));
+    }
+
+    private static ProductIndex.Query randomQuery(Random random, int features) {
+        ProductIndex.Query query = new ProductIndex.Query(Set.of(), Set.of(),
+                Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+        for (int i = random.nextInt(3); i > 0; i--) {
+            query = query.and("f" + random.nextInt(features + 5));
+        }
+        for (int i = random.nextInt(3); i > 0; i--) {
+            query = query.or("f" + random.nextInt(features + 5));
+        }
+        if (random.nextBoolean()) {
+            double min = random.nextInt(1000);
+            query = query.priceBetween(min, min + random.nextInt(300));
+        }
+        return query;
+    }
+
+    private static int[] scan(ProductCatalog catalog, ProductIndex.Query query) {
+        List<Integer> rows = new ArrayList<>();
+        for (int row = 0; row < catalog.size(); row++) {
+            Product product = catalog.get(row);
+            List<String> rowFeatures = product.getFeatures();
+            boolean matches = rowFeatures.containsAll(query.allOf())
+                    && (query.anyOf().isEmpty() || query.anyOf().stream().anyMatch(rowFeatures::contains))
+                    && product.getPrice() >= query.minPrice() && product.getPrice() <= query.maxPrice();
+            if (matches) {
+                rows.add(row);
+            }
+        }
+        return rows.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
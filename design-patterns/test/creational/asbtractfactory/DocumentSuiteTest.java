@@ -0,0 +1,58 @@
+package creational.asbtractfactory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Scanner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentSuiteTest {
+
+    @Test
+    void namesParseIgnoringCaseAndSurroundingWhitespace() {
+        assertEquals(DocumentType.PDF, DocumentType.parse("  Pdf\t"));
+        assertEquals(DocumentSuite.OPENSOURCE, DocumentSuite.parse("OpenSource "));
+        assertNull(DocumentType.parse("pd f"));
+        assertNull(DocumentType.parse(null));
+    }
+
+    @Test
+    void unknownSuitesHaveNoFactory() {
+        assertNull(DocumentFactoryProducer.getFactory("apple"));
+        assertSame(DocumentSuite.MICROSOFT.factory(), DocumentFactoryProducer.getFactory(" MICROSOFT"));
+        assertSame(DocumentSuite.OPENSOURCE, DocumentFactoryProducer.getSuite("opensource"));
+        assertNull(DocumentFactoryProducer.getSuite("apple"));
+    }
+
+    @Test
+    void unsupportedPairsHaveNoCreator() {
+        assertFalse(DocumentSuite.MICROSOFT.supports(DocumentType.PDF));
+        assertNull(DocumentSuite.MICROSOFT.create(DocumentType.PDF));
+        assertInstanceOf(PDFDocument.class, DocumentSuite.OPENSOURCE.create(DocumentType.PDF));
+        assertTrue(DocumentSuite.MICROSOFT.supports(DocumentType.WORD));
+        assertThrows(UnsupportedOperationException.class,
+                () -> DocumentSuite.MICROSOFT.factory().createPDFDocument());
+    }
+
+    // the type factory creates through the suite's own table
+    @Test
+    void typeFactoryDelegatesToItsSuite() {
+        assertNull(new DocumentTypeFactory(DocumentSuite.MICROSOFT).createDocument(DocumentType.PDF));
+        assertInstanceOf(WordDocument.class, new DocumentTypeFactory(DocumentSuite.MICROSOFT).createDocument(DocumentType.WORD));
+        assertInstanceOf(PDFDocument.class, new DocumentTypeFactory(DocumentSuite.OPENSOURCE).createDocument(DocumentType.PDF));
+    }
+
+    @Test
+    void interactiveCreationAcceptsTheRawLine() {
+        DocumentTypeFactory factory = new DocumentTypeFactory(DocumentSuite.OPENSOURCE);
+        factory.processDocumentCreation(new Scanner("  Excel \n"));
+        assertThrows(IllegalArgumentException.class,
+                () -> factory.processDocumentCreation(new Scanner("spreadsheet\n")));
+    }
+}
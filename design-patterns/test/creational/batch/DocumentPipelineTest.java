@@ -0,0 +1,89 @@
+package creational.batch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentPipelineTest {
+
+    @Test
+    void itemsRunEveryStageAndFailuresSkipTheRest() throws InterruptedException {
+        List<String> finished = new CopyOnWriteArrayList<>();
+        Map<Integer, RuntimeException> failed = new ConcurrentHashMap<>();
+        try (DocumentPipeline<Integer> pipeline = DocumentPipeline.<Integer>newBuilder()
+                .setParallelism(2)
+                .setQueueCapacity(1)
+                .addStage("check", item -> {
+                    if (item % 10 == 0) {
+                        throw new IllegalArgumentException("bad " + item);
+                    }
+                })
+                .addStage("record", item -> finished.add("item " + item))
+                .setErrorHandler(failed::put)
+                .build()) {
+            for (int i = 1; i <= 100; i++) {
+                pipeline.submit(i);
+            }
+            pipeline.awaitCompletion();
+            assertEquals(90, finished.size());
+            assertEquals(10, failed.size());
+            assertEquals(10, pipeline.metrics().get(0).failed());
+            assertEquals(90, pipeline.metrics().get(1).completed());
+        }
+    }
+
+    // an interrupted hand-off used to drop the item without telling anyone
+    @Test
+    void interruptedHandOffGoesToTheErrorHandler() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Thread> firstStageWorker = new AtomicReference<>();
+        Map<Integer, RuntimeException> failed = new ConcurrentHashMap<>();
+        AtomicReference<Boolean> interruptRestored = new AtomicReference<>();
+        try (DocumentPipeline<Integer> pipeline = DocumentPipeline.<Integer>newBuilder()
+                .setParallelism(1)
+                .setQueueCapacity(0)
+                .addStage("first", item -> {
+                    if (item == 2) {
+                        firstStageWorker.set(Thread.currentThread());
+                    }
+                })
+                .addStage("blocked", item -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })
+                .setErrorHandler((item, e) -> {
+                    interruptRestored.set(Thread.currentThread().isInterrupted());
+                    failed.put(item, e);
+                })
+                .build()) {
+            pipeline.submit(1);
+            pipeline.submit(2);
+            // item 2 is done with the first stage and waits for the blocked one
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (firstStageWorker.get() == null || firstStageWorker.get().getState() != Thread.State.WAITING) {
+                assertTrue(System.nanoTime() < deadline, "hand-off never blocked");
+                Thread.sleep(5);
+            }
+            firstStageWorker.get().interrupt();
+            release.countDown();
+            pipeline.awaitCompletion();
+            assertEquals(List.of(2), List.copyOf(failed.keySet()));
+            assertInstanceOf(InterruptedException.class, failed.get(2).getCause());
+            assertTrue(interruptRestored.get());
+            assertEquals(1, pipeline.metrics().get(1).failed());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package creational.io;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private DocumentStore previous;
+
+    @BeforeEach
+    void useTempStore() {
+        previous = DocumentStore.getDefault();
+        DocumentStore.setDefault(new DocumentStore(directory, FsyncPolicy.NONE, 64, 1 << 20));
+    }
+
+    @AfterEach
+    void restoreStore() {
+        DocumentStore.setDefault(previous);
+    }
+
+    @Test
+    void namedDocumentsRoundTripThroughTheirFile() {
+        for (DocumentSerializer serializer : List.of(new WordSerializer(), new ExcelSerializer(), new PdfSerializer())) {
+            Path file = directory.resolve("report." + serializer.extension());
+            TestDocument saved = new TestDocument(serializer);
+            saved.setPath(file);
+            saved.setContent("first line\nsecond line é中");
+            saved.store();
+
+            TestDocument opened = new TestDocument(serializer);
+            opened.setPath(file);
+            opened.load();
+            assertEquals("first line\nsecond line é中", opened.getContent());
+        }
+    }
+
+    // unnamed documents used to share one untitled file and tear each other's writes
+    @Test
+    void unnamedDocumentsStayInMemory() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String content = "thread " + t + "\n";
+            tasks.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 200; i++) {
+                    TestDocument document = new TestDocument(new ExcelSerializer());
+                    assertNull(document.getPath());
+                    document.setContent(content.repeat(i + 1));
+                    document.store();
+                    document.load();
+                    assertEquals(content.repeat(i + 1), document.getContent());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> task : tasks) {
+            task.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    // rows are encoded in place, so empty rows, a trailing newline and an unpaired
+    // surrogate must come out exactly as getBytes and split used to write them
+    @Test
+    void serializersFillNoMoreThanMaxSize() {
+        for (DocumentSerializer serializer : List.of(new WordSerializer(), new ExcelSerializer(), new PdfSerializer())) {
+            for (String content : List.of("", "\n", "a\n\nb\n", "é中\uD83D\uDE00", "broken \uD800 pair")) {
+                ByteBuffer buffer = ByteBuffer.allocate((int) serializer.maxSize(content));
+                serializer.serialize(content, buffer);
+                String expected = new String(content.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+                assertEquals(expected, serializer.deserialize(buffer.flip()), serializer.extension());
+            }
+        }
+    }
+
+    @Test
+    void largeDocumentsDoNotKeepTheirBuffer() {
+        DocumentStore store = new DocumentStore(directory, FsyncPolicy.NONE, 64, Long.MAX_VALUE);
+        Path file = directory.resolve("large.docx");
+        String large = "x".repeat(DocumentStore.RETAINED_BUFFER_SIZE);
+        store.save(file, large, new WordSerializer());
+        assertTrue(store.retainedBufferCapacity() <= DocumentStore.RETAINED_BUFFER_SIZE);
+        assertEquals(large, store.open(file, new WordSerializer()));
+        assertTrue(store.retainedBufferCapacity() <= DocumentStore.RETAINED_BUFFER_SIZE);
+    }
+
+    @Test
+    void bufferSizesNeverOverflow() {
+        assertEquals(1, DocumentStore.bufferSize(0));
+        assertEquals(1, DocumentStore.bufferSize(1));
+        assertEquals(8192, DocumentStore.bufferSize(5000));
+        assertEquals(1 << 30, DocumentStore.bufferSize(1 << 30));
+        assertTrue(DocumentStore.bufferSize((1 << 30) + 1) >= (1 << 30) + 1);
+        assertTrue(DocumentStore.bufferSize(Integer.MAX_VALUE - 8) > 0);
+    }
+
+    private static final class TestDocument extends StoredDocument {
+        TestDocument(DocumentSerializer serializer) {
+            super(serializer);
+        }
+    }
+}
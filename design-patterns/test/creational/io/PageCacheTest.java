@@ -0,0 +1,108 @@
+package creational.io;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PageCacheTest {
+    private static final int PAGE_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    private PageCache cache;
+    private DocumentStore previous;
+
+    @BeforeEach
+    void usePagingStore() {
+        cache = new PageCache(1 << 20);
+        previous = DocumentStore.getDefault();
+        DocumentStore.setDefault(new DocumentStore(directory, FsyncPolicy.NONE, 64, 1 << 20,
+                PAGE_SIZE, PAGE_SIZE, cache));
+    }
+
+    @AfterEach
+    void restoreStore() {
+        DocumentStore.setDefault(previous);
+    }
+
+    @Test
+    void opensOfTheSameFileSharePages() throws IOException {
+        Path file = write("shared.bin", 4 * PAGE_SIZE);
+        DocumentStore store = DocumentStore.getDefault();
+        try (PagedFile first = store.openPaged(file)) {
+            first.page(0);
+            try (PagedFile second = store.openPaged(file)) {
+                second.page(0);
+                assertEquals(1, cache.hits());
+                assertEquals(PAGE_SIZE, cache.cachedBytes());
+            }
+            // the first open still uses the page
+            assertEquals(PAGE_SIZE, cache.cachedBytes());
+        }
+        assertEquals(0, cache.cachedBytes());
+    }
+
+    @Test
+    void rewrittenFilesGetFreshPages() throws IOException {
+        Path file = write("changing.bin", 2 * PAGE_SIZE);
+        DocumentStore store = DocumentStore.getDefault();
+        try (PagedFile before = store.openPaged(file)) {
+            assertEquals(0, before.page(0).get(0));
+            byte[] changed = new byte[2 * PAGE_SIZE];
+            changed[0] = 7;
+            Files.write(file, changed);
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(60)));
+            try (PagedFile after = store.openPaged(file)) {
+                assertEquals(7, after.page(0).get(0));
+                assertEquals(0, cache.hits());
+            }
+        }
+        assertEquals(0, cache.cachedBytes());
+    }
+
+    @Test
+    void lazyDocumentsKeepTheirContentAfterClosing() throws IOException {
+        Path file = directory.resolve("large.docx");
+        String text = "x".repeat(3 * PAGE_SIZE);
+        TestDocument writer = new TestDocument();
+        writer.setPath(file);
+        writer.setContent(text);
+        writer.store();
+
+        TestDocument document = new TestDocument();
+        document.setPath(file);
+        document.load();
+        assertTrue(document.isPaged());
+        document.unload();
+        assertFalse(document.isPaged());
+
+        // saving elsewhere copies the untouched file rather than writing nothing
+        Path copy = directory.resolve("copy.docx");
+        document.setPath(copy);
+        document.store();
+        assertEquals(Files.size(file), Files.size(copy));
+        assertEquals(text, document.getContent());
+    }
+
+    private Path write(String name, int size) throws IOException {
+        return Files.write(directory.resolve(name), new byte[size]);
+    }
+
+    private static final class TestDocument extends StoredDocument {
+        TestDocument() {
+            super(new WordSerializer());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package instrumentation;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InstrumentationTest {
+
+    // each dump used to start its own executor, so cancelled dumps left their threads behind
+    @Test
+    void dumpsShareOneThread() throws InterruptedException {
+        Instrumentation.recorder("instrumentation.dumpTest").record(1_000);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        List<ScheduledFuture<?>> dumps = new ArrayList<>();
+        try (PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < 5; i++) {
+                dumps.add(Instrumentation.startDump(Duration.ofMillis(10), out));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!bytes.toString(StandardCharsets.UTF_8).contains("instrumentation.dumpTest")
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(bytes.toString(StandardCharsets.UTF_8).contains("instrumentation.dumpTest"));
+            assertEquals(1, dumpThreads());
+        } finally {
+            dumps.forEach(dump -> dump.cancel(false));
+        }
+        assertTrue(dumps.stream().allMatch(ScheduledFuture::isCancelled));
+        assertEquals(1, dumpThreads());
+    }
+
+    private static long dumpThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("instrumentation-dump"))
+                .count();
+    }
+}
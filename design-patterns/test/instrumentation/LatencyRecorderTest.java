@@ -0,0 +1,79 @@
+package instrumentation;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyRecorderTest {
+
+    @Test
+    void bucketsStayWithinOneSixtyFourth() {
+        for (long value = 1; value < TimeUnit.MINUTES.toNanos(10); value = value * 3 / 2 + 1) {
+            long recorded = value;
+            long reported = LatencyRecorder.highestValue(LatencyRecorder.bucket(recorded));
+            assertTrue(reported >= recorded, () -> recorded + " reported as " + reported);
+            assertTrue(reported - recorded <= recorded / 64, () -> recorded + " reported as " + reported);
+        }
+    }
+
+    @Test
+    void percentilesMeanAndMaxComeFromAllThreads() throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder("test");
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int value = 1; value <= 1000; value++) {
+                    recorder.record(value * 1000L);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        LatencySnapshot snapshot = recorder.snapshot();
+        assertEquals(4000, snapshot.count());
+        assertEquals(500_500, snapshot.meanNanos());
+        assertEquals(1_000_000, snapshot.maxNanos());
+        assertEquals(500_000, snapshot.p50Nanos(), 500_000 / 64.0);
+        assertEquals(990_000, snapshot.p99Nanos(), 990_000 / 64.0);
+    }
+
+    // the rate used to be the lifetime average, which hides a recent change in load
+    @Test
+    void rateCoversTheLastIntervalOnly() {
+        LatencyRecorder recorder = new LatencyRecorder("rate");
+        long second = TimeUnit.SECONDS.toNanos(1);
+        long start = System.nanoTime();
+        assertEquals(1000, recorder.rate(10_000, start + 10 * second), 1);
+        // a busy second, then an idle one
+        assertEquals(50_000, recorder.rate(60_000, start + 11 * second), 1);
+        assertEquals(50_000, recorder.rate(60_000, start + 11 * second + second / 2), 1);
+        assertEquals(0, recorder.rate(60_000, start + 12 * second), 1);
+    }
+
+    @Test
+    void beanExposesACompositeSnapshot() throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder("bean");
+        recorder.record(2_000);
+        // a private server, so nothing is left registered in the platform one
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        ObjectName name = new ObjectName("patterns:type=Latency,name=bean");
+        server.registerMBean(new Instrumentation.RecorderBean(recorder), name);
+        CompositeData snapshot = (CompositeData) server.getAttribute(name, "Snapshot");
+        assertEquals(1L, snapshot.get("count"));
+        assertEquals("bean", snapshot.get("name"));
+        assertEquals(1L, server.getAttribute(name, "Count"));
+        assertEquals(2_000L, server.getAttribute(name, "MaxNanos"));
+    }
+}
@@ -0,0 +1,22 @@
+package logging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LogTest {
+
+    @Test
+    void levelsParseInAnyCaseAndUnknownOnesFallBackToInfo() {
+        assertEquals(Level.DEBUG, Log.parseLevel("debug"));
+        assertEquals(Level.WARN, Log.parseLevel(" Warn "));
+        assertEquals(Level.INFO, Log.parseLevel("verbose"));
+    }
+
+    @Test
+    void formatFillsAtMostTwoPlaceholders() {
+        assertEquals("no placeholders", Log.format("no placeholders", 1, 2));
+        assertEquals("a=1", Log.format("a={}", 1, null));
+        assertEquals("1 and 2, {}", Log.format("{} and {}, {}", 1, 2));
+    }
+}
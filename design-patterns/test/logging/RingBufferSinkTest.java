@@ -0,0 +1,220 @@
+package logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingBufferSinkTest {
+
+    @Test
+    void everyRecordFromEveryThreadIsWrittenInThreadOrder() throws InterruptedException {
+        MemoryChannel channel = new MemoryChannel(Integer.MAX_VALUE);
+        RingBufferSink sink = new RingBufferSink(channel, 16);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int id = t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    sink.write(Level.INFO, "thread {} record {}", id, i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        sink.close();
+        String[] lines = channel.text().split("\n");
+        assertEquals(8_000, lines.length);
+        int[] next = new int[4];
+        for (String line : lines) {
+            String message = line.substring(line.indexOf("] ") + 2);
+            String[] words = message.split(" ");
+            int id = Integer.parseInt(words[1]);
+            assertEquals(next[id]++, Integer.parseInt(words[3]), line);
+        }
+        assertNull(sink.failure());
+    }
+
+    // a failing channel used to kill the writer and leave producers spinning on a full ring
+    @Test
+    void aFailingChannelFallsBackToStandardError() {
+        PrintStream previous = System.err;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(captured, true, StandardCharsets.UTF_8));
+        try {
+            MemoryChannel channel = new MemoryChannel(1);
+            RingBufferSink sink = new RingBufferSink(channel, 8);
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                for (int i = 0; i < 1_000; i++) {
+                    sink.write(Level.WARN, "record {}", i, null);
+                }
+                sink.close();
+            });
+            assertNotNull(sink.failure());
+        } finally {
+            System.setErr(previous);
+        }
+        String fallback = captured.toString(StandardCharsets.UTF_8);
+        assertTrue(fallback.contains("falling back to standard error"));
+        assertTrue(fallback.contains("record 999"));
+    }
+
+    @Test
+    void writesAfterCloseAreDropped() {
+        MemoryChannel channel = new MemoryChannel(Integer.MAX_VALUE);
+        RingBufferSink sink = new RingBufferSink(channel, 8);
+        sink.write(Level.INFO, "before", null, null);
+        sink.close();
+        sink.write(Level.INFO, "after", null, null);
+        assertEquals(1, sink.droppedCount());
+        assertTrue(channel.text().endsWith("before\n"));
+    }
+
+    // a record claimed after the writer's last check used to be neither written nor counted
+    @Test
+    void everyRecordRacingCloseIsWrittenOrCounted() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            MemoryChannel channel = new MemoryChannel(Integer.MAX_VALUE);
+            RingBufferSink sink = new RingBufferSink(channel, 64);
+            int perThread = 2_000;
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < perThread; i++) {
+                        sink.write(Level.INFO, "record {}", i, null);
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            start.countDown();
+            sink.close();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            long written = channel.text().lines().count();
+            assertEquals(4L * perThread, written + sink.droppedCount(), "round " + round);
+        }
+    }
+
+    // flush() used to spin until the records were out, however long the channel took
+    @Test
+    void flushParksUntilTheBatchIsOutOrTheTimeoutPasses() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        MemoryChannel channel = new MemoryChannel(Integer.MAX_VALUE) {
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return super.write(src);
+            }
+        };
+        RingBufferSink sink = new RingBufferSink(channel, 8);
+        sink.write(Level.INFO, "slow", null, null);
+        assertFalse(sink.flush(50, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertTrue(sink.flush(1, TimeUnit.MINUTES)));
+        assertTrue(channel.text().endsWith("slow\n"));
+        sink.close();
+    }
+
+    @Test
+    void aDeadWriterReleasesFlushAndCountsLaterRecords() {
+        MemoryChannel channel = new MemoryChannel(Integer.MAX_VALUE) {
+            @Override
+            public int write(ByteBuffer src) {
+                throw new IllegalStateException("channel broke");
+            }
+        };
+        RingBufferSink sink = new RingBufferSink(channel, 8);
+        sink.write(Level.INFO, "lost", null, null);
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertFalse(sink.flush(1, TimeUnit.MINUTES)));
+        for (int i = 0; i < 20; i++) {
+            sink.write(Level.INFO, "after {}", i, null);
+        }
+        assertEquals(20, sink.droppedCount());
+    }
+
+    @Test
+    void unformattableArgumentsDoNotStopTheWriter() {
+        MemoryChannel channel = new MemoryChannel(Integer.MAX_VALUE);
+        RingBufferSink sink = new RingBufferSink(channel, 8);
+        Object broken = new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException("broken");
+            }
+        };
+        sink.write(Level.INFO, "value {}", broken, null);
+        sink.write(Level.INFO, "still {}", "running", null);
+        sink.close();
+        String text = channel.text();
+        assertTrue(text.contains("value {} (formatting failed: java.lang.IllegalStateException: broken)"), text);
+        assertTrue(text.contains("still running"), text);
+    }
+
+    // collects what is written, and fails every write after the first few
+    private static class MemoryChannel implements WritableByteChannel {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private int writesLeft;
+        private boolean open = true;
+
+        MemoryChannel(int successfulWrites) {
+            this.writesLeft = successfulWrites;
+        }
+
+        @Override
+        public synchronized int write(ByteBuffer src) throws IOException {
+            if (writesLeft-- <= 0) {
+                throw new IOException("disk full");
+            }
+            int count = src.remaining();
+            byte[] chunk = new byte[count];
+            src.get(chunk);
+            bytes.write(chunk);
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+
+        synchronized String text() {
+            return bytes.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
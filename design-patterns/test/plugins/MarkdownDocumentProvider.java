@@ -0,0 +1,37 @@
+package plugins;
+
+import creational.Document;
+import creational.DocumentFactory;
+import creational.DocumentFactoryProvider;
+
+// registered through test/META-INF/services, from outside the creational package on purpose
+public class MarkdownDocumentProvider implements DocumentFactoryProvider {
+    @Override
+    public String type() {
+        return " Markdown ";
+    }
+
+    @Override
+    public DocumentFactory createFactory() {
+        return new DocumentFactory() {
+            @Override
+            public Document createDocument() {
+                return new MarkdownDocument();
+            }
+        };
+    }
+
+    public static class MarkdownDocument implements Document {
+        @Override
+        public void open() {
+        }
+
+        @Override
+        public void save() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package structural.adapter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChargerSchedulerTest {
+    private static final AppleCharger INSTANT = () -> { };
+
+    // simulated chargers, the Android ones twice as slow; every session is charged exactly once
+    @Test
+    void everySessionIsChargedOnce() {
+        ChargerScheduler.Builder builder = ChargerScheduler.newBuilder();
+        for (int i = 0; i < 2; i++) {
+            builder.addAppleCharger(new SimulatedCharger(Duration.ofMillis(1), Duration.ZERO));
+            builder.addAndroidCharger(new SimulatedCharger(Duration.ofMillis(2), Duration.ZERO));
+        }
+        int devices = 400;
+        List<CompletableFuture<ChargerScheduler.ChargeSession>> sessions = new ArrayList<>(devices);
+        ChargerScheduler.Metrics metrics;
+        try (ChargerScheduler scheduler = builder.build()) {
+            for (int i = 0; i < devices; i++) {
+                ChargePriority priority = i % 10 == 0 ? ChargePriority.HIGH
+                        : i % 3 == 0 ? ChargePriority.LOW : ChargePriority.NORMAL;
+                sessions.add(scheduler.charge("iphone-" + i, priority));
+            }
+            for (int i = 0; i < devices; i++) {
+                ChargerScheduler.ChargeSession session = sessions.get(i).orTimeout(1, TimeUnit.MINUTES).join();
+                assertEquals("iphone-" + i, session.deviceId());
+                assertTrue(session.chargeNanos() >= TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            metrics = scheduler.metrics();
+        }
+        assertEquals(devices, metrics.sessions());
+        assertEquals(4, metrics.chargers().size());
+        assertEquals(devices, metrics.chargers().stream().mapToLong(ChargerScheduler.ChargerMetrics::sessions).sum());
+        assertTrue(metrics.chargers().stream().allMatch(charger -> charger.failed() == 0 && charger.queued() == 0));
+        assertTrue(metrics.maxWaitNanos() >= metrics.averageWaitNanos());
+    }
+
+    @Test
+    void chargerErrorsFailTheirSessionAndTheWorkerKeepsServing() {
+        AtomicInteger calls = new AtomicInteger();
+        AppleCharger flaky = () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new AssertionError("charger broke");
+            }
+        };
+        try (ChargerScheduler scheduler = ChargerScheduler.newBuilder().addAppleCharger(flaky).build()) {
+            CompletableFuture<ChargerScheduler.ChargeSession> first = scheduler.charge("first", ChargePriority.NORMAL);
+            CompletionException failure = assertThrows(CompletionException.class,
+                    () -> first.orTimeout(10, TimeUnit.SECONDS).join());
+            assertInstanceOf(AssertionError.class, failure.getCause());
+            assertEquals("second", scheduler.charge("second", ChargePriority.NORMAL)
+                    .orTimeout(10, TimeUnit.SECONDS).join().deviceId());
+            assertEquals(1, scheduler.metrics().chargers().get(0).failed());
+        }
+    }
+
+    @Test
+    void closedSchedulerRejectsSessions() {
+        ChargerScheduler scheduler = ChargerScheduler.newBuilder().addAppleCharger(INSTANT).build();
+        scheduler.close();
+        scheduler.close();
+        assertThrows(IllegalStateException.class, () -> scheduler.charge("late", ChargePriority.HIGH));
+    }
+
+    // a session that races with close() is charged or failed, never left pending
+    @Test
+    void sessionsRacingCloseAlwaysComplete() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 50; round++) {
+                ChargerScheduler scheduler = ChargerScheduler.newBuilder()
+                        .addAppleCharger(INSTANT)
+                        .addAppleCharger(INSTANT)
+                        .build();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<List<CompletableFuture<ChargerScheduler.ChargeSession>>>> tasks = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    tasks.add(executor.submit(() -> {
+                        start.await();
+                        List<CompletableFuture<ChargerScheduler.ChargeSession>> futures = new ArrayList<>();
+                        try {
+                            for (int i = 0; i < 200; i++) {
+                                futures.add(scheduler.charge("device-" + i, ChargePriority.NORMAL));
+                            }
+                        } catch (IllegalStateException closed) {
+                            // the scheduler closed under us
+                        }
+                        return futures;
+                    }));
+                }
+                start.countDown();
+                scheduler.close();
+                for (Future<List<CompletableFuture<ChargerScheduler.ChargeSession>>> task : tasks) {
+                    for (CompletableFuture<ChargerScheduler.ChargeSession> future : task.get(1, TimeUnit.MINUTES)) {
+                        assertTrue(future.isDone());
+                        if (future.isCompletedExceptionally()) {
+                            CompletionException failure = assertThrows(CompletionException.class, future::join);
+                            assertInstanceOf(IllegalStateException.class, failure.getCause());
+                        }
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void interruptedCloseFailsQueuedSessionsAndKeepsTheInterrupt() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch charging = new CountDownLatch(1);
+        AppleCharger blocking = () -> {
+            charging.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        ChargerScheduler scheduler = ChargerScheduler.newBuilder().addAppleCharger(blocking).build();
+        try {
+            CompletableFuture<ChargerScheduler.ChargeSession> busy = scheduler.charge("busy", ChargePriority.NORMAL);
+            assertTrue(charging.await(10, TimeUnit.SECONDS));
+            CompletableFuture<ChargerScheduler.ChargeSession> queued = scheduler.charge("queued", ChargePriority.NORMAL);
+            Thread.currentThread().interrupt();
+            scheduler.close();
+            assertTrue(Thread.interrupted());
+            CompletionException failure = assertThrows(CompletionException.class, queued::join);
+            assertInstanceOf(IllegalStateException.class, failure.getCause());
+            release.countDown();
+            assertEquals("busy", busy.orTimeout(10, TimeUnit.SECONDS).join().deviceId());
+        } finally {
+            release.countDown();
+        }
+    }
+}